@@ -0,0 +1,112 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Writes Floyd-Warshall and Johnson results into a DistanceMatrix file and
+// reads them back. Johnson streams its rows straight from the workers into
+// the file. Floyd-Warshall still needs its n x n working matrix, but the
+// result leaves the heap as soon as it is done. Compile from this folder
+// together with both algorithm folders:
+//
+//   javac -sourcepath .. -d out *.java "Floyd-Warshall Algorithm"/*.java "Johnson Algorithm"/*.java
+//   java -cp out APSPExport johnson V E out.dm [INT32|UINT16|VARINT] [tile] [threads]
+//   java -cp out APSPExport fw n out.dm [INT32|UINT16|VARINT] [tile]
+//   java -cp out APSPExport get out.dm i j
+//   java -cp out APSPExport row out.dm i
+class APSPExport {
+    static final int DEFAULT_TILE = 256;
+
+    // Vertices 1..V become rows and columns 0..V-1. Returns false on a negative cycle.
+    static boolean johnson(Graph g, int threads, DistanceMatrix.Writer out) throws IOException {
+        int[] h = g.potentials();
+        if (h == null) return false;
+        int[] sources = new int[g.V];
+        for (int i = 0; i < g.V; i++) sources[i] = i + 1;
+        try {
+            ParallelJohnson.run(g, h, g.reweight(h), sources, threads, (u, dist) -> {
+                try {
+                    out.setRow(u - 1, dist, 1);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (IllegalStateException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) ex.getCause()).getCause();
+            throw ex;
+        }
+        return true;
+    }
+
+    // Writes a finished row-major Floyd-Warshall matrix.
+    static void floydWarshall(int[] dist, int n, DistanceMatrix.Writer out) throws IOException {
+        for (int i = 0; i < n; i++) out.setRow(i, dist, i * n);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 4 && args[0].equals("get")) {
+            DistanceMatrix m = DistanceMatrix.open(Paths.get(args[1]));
+            int d = m.get(Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            System.out.println(d == DistanceMatrix.INF ? "INF" : String.valueOf(d));
+            return;
+        }
+        if (args.length >= 3 && args[0].equals("row")) {
+            DistanceMatrix m = DistanceMatrix.open(Paths.get(args[1]));
+            StringBuilder sb = new StringBuilder();
+            for (int d : m.row(Integer.parseInt(args[2]), new int[m.size()])) {
+                sb.append(d == DistanceMatrix.INF ? "INF" : String.valueOf(d)).append(' ');
+            }
+            System.out.println(sb);
+            return;
+        }
+
+        if (args.length < 3 || !(args[0].equals("fw") || args[0].equals("johnson"))) {
+            System.out.println("usage: APSPExport johnson V E out.dm [enc] [tile] [threads] | fw n out.dm [enc] [tile]"
+                    + " | get out.dm i j | row out.dm i");
+            return;
+        }
+        boolean fw = args[0].equals("fw");
+        int a = fw ? 2 : 3; // index of the output path
+        int n = Integer.parseInt(args[1]);
+        Path path = Paths.get(args[a]);
+        DistanceMatrix.Encoding enc = DistanceMatrix.Encoding.valueOf(args.length > a + 1 ? args[a + 1] : "VARINT");
+        int tile = args.length > a + 2 ? Integer.parseInt(args[a + 2]) : DEFAULT_TILE;
+        int threads = args.length > a + 3 ? Integer.parseInt(args[a + 3]) : Runtime.getRuntime().availableProcessors();
+
+        // Keep a few rows computed in memory to check the file against.
+        int[] checkRows = {0, n / 2, n - 1};
+        int[][] expected = new int[checkRows.length][];
+        Graph g = fw ? null : ParallelJohnson.randomGraph(n, Integer.parseInt(args[2]), 7);
+        long t0 = System.nanoTime();
+        try (DistanceMatrix.Writer out = DistanceMatrix.create(path, n, tile, enc)) {
+            if (fw) {
+                int[] dist = FloydWarshall.toFlat(FloydWarshall.randomMatrix(n, 11), n);
+                FloydWarshall.floydWarshall(dist, n, FloydWarshall.DEFAULT_BLOCK);
+                floydWarshall(dist, n, out);
+                for (int k = 0; k < checkRows.length; k++) {
+                    expected[k] = Arrays.copyOfRange(dist, checkRows[k] * n, (checkRows[k] + 1) * n);
+                }
+            } else {
+                if (!johnson(g, threads, out)) throw new AssertionError("random graphs have no negative cycle");
+                int[] h = g.potentials();
+                CSRGraph rw = g.reweight(h);
+                for (int k = 0; k < checkRows.length; k++) {
+                    int u = checkRows[k] + 1;
+                    int[] d = g.dijkstra(u, rw);
+                    expected[k] = new int[n];
+                    for (int v = 1; v <= n; v++) expected[k][v - 1] = d[v] == DistanceMatrix.INF ? d[v] : d[v] + h[v] - h[u];
+                }
+            }
+        }
+        double ms = (System.nanoTime() - t0) / 1e6;
+
+        DistanceMatrix m = DistanceMatrix.open(path);
+        boolean ok = true;
+        for (int k = 0; k < checkRows.length; k++) {
+            ok &= Arrays.equals(expected[k], m.row(checkRows[k], new int[n]));
+            ok &= expected[k][n / 3] == m.get(checkRows[k], n / 3);
+        }
+        System.out.printf("%s %d x %d as %s, tile %d: %.1f ms, %.1f MB on disk (%.2f bytes/cell), rows match: %b%n",
+                fw ? "Floyd-Warshall" : "Johnson", n, n, enc, tile, ms, Files.size(path) / 1e6,
+                (double) Files.size(path) / n / n, ok);
+    }
+}
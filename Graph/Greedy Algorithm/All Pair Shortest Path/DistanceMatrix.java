@@ -0,0 +1,326 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// An n x n distance matrix stored in a file and read through memory maps, so
+// a 100k x 100k result never has to sit on the heap.
+//
+// The matrix is cut into tile x tile blocks stored in row-major tile order.
+// A random get(i, j) touches one tile and a row(i) scan touches one tile row.
+// Little-endian file layout:
+//
+//   header (64 bytes): magic, version, n, tile, encoding, 0, long indexOffset
+//   INT32 / UINT16:    every tile padded to tile x tile cells of 4 / 2 bytes,
+//                      so cell (i, j) has a computable position
+//   VARINT:            tiles one after another, each one a table of `tile`
+//                      int row offsets followed by the varint-coded cells.
+//                      The long tile offsets sit at indexOffset.
+//
+// INF (Integer.MAX_VALUE) is 0xFFFF in UINT16 and 0 in VARINT. Other values
+// are zigzag-coded + 1, so small and negative distances take 1-2 bytes.
+// UINT16 only accepts 0..65534.
+public class DistanceMatrix {
+    static final int INF = Integer.MAX_VALUE;
+    private static final int MAGIC = 0x54414D44; // "DMAT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final long SEGMENT = 1L << 30; // bytes per mapping
+    private static final int MAX_INDEX = (Integer.MAX_VALUE - 8) / 8; // VARINT tile offsets in one long[] / ByteBuffer
+
+    enum Encoding {
+        INT32(4), UINT16(2), VARINT(0);
+
+        final int width; // bytes per cell, 0 = variable
+
+        Encoding(int width) {
+            this.width = width;
+        }
+    }
+
+    private final int n, tile, nt;
+    private final Encoding encoding;
+    private final MappedByteBuffer[] segments;
+    private final long[] index; // VARINT tile offsets, else null
+
+    private DistanceMatrix(int n, int tile, Encoding encoding, MappedByteBuffer[] segments, long[] index) {
+        this.n = n;
+        this.tile = tile;
+        this.nt = tileCount(n, tile);
+        this.encoding = encoding;
+        this.segments = segments;
+        this.index = index;
+    }
+
+    public static DistanceMatrix open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (h.hasRemaining() && ch.read(h, h.position()) > 0) { }
+            h.flip();
+            if (h.remaining() < HEADER_BYTES || h.getInt(0) != MAGIC) throw new IOException(path + " is not a distance matrix file");
+            if (h.getInt(4) != VERSION) throw new IOException("Unsupported distance matrix version " + h.getInt(4));
+            int n = h.getInt(8), tile = h.getInt(12), encoding = h.getInt(16);
+            if (n < 1 || tile < 1 || encoding < 0 || encoding >= Encoding.values().length) {
+                throw new IOException("corrupt header in " + path + " (n " + n + ", tile " + tile + ", encoding " + encoding + ")");
+            }
+            Encoding enc = Encoding.values()[encoding];
+            long indexOffset = h.getLong(24);
+
+            long size = ch.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT - 1) / SEGMENT)];
+            for (int s = 0; s < segments.length; s++) {
+                long pos = s * SEGMENT;
+                segments[s] = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(SEGMENT, size - pos));
+                segments[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            long[] index = null;
+            if (enc == Encoding.VARINT) {
+                long tiles = (long) tileCount(n, tile) * tileCount(n, tile);
+                if (tiles > MAX_INDEX) throw new IOException("corrupt header in " + path + ": " + tiles + " VARINT tiles");
+                index = new long[(int) tiles];
+                ByteBuffer buf = ByteBuffer.allocate(8 * index.length).order(ByteOrder.LITTLE_ENDIAN);
+                for (long pos = indexOffset; buf.hasRemaining(); ) {
+                    int r = ch.read(buf, pos);
+                    if (r < 0) throw new EOFException("Truncated tile index in " + path);
+                    pos += r;
+                }
+                buf.flip().asLongBuffer().get(index);
+            }
+            return new DistanceMatrix(n, tile, enc, segments, index);
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Tiles per side. Tile numbers go up to nt * nt, which overflows int once
+    // nt > 46340, so they are computed as longs.
+    private static int tileCount(int n, int tile) {
+        return (n - 1) / tile + 1;
+    }
+
+    public int get(int i, int j) {
+        if (i < 0 || i >= n || j < 0 || j >= n) throw new IndexOutOfBoundsException("(" + i + ", " + j + ") outside " + n + " x " + n);
+        long t = (long) (i / tile) * nt + j / tile;
+        int li = i % tile, lj = j % tile;
+        if (encoding != Encoding.VARINT) return readCell(fixedTileBase(t) + ((long) li * tile + lj) * encoding.width);
+        long start = index[(int) t];
+        long[] p = {start + readIntLE(start + 4L * li)};
+        for (int c = 0; c < lj; c++) readVarint(p);
+        return readVarint(p);
+    }
+
+    // Copies row i into out[0 .. n), one tile at a time.
+    public int[] row(int i, int[] out) {
+        if (i < 0 || i >= n) throw new IndexOutOfBoundsException("Row " + i + " outside 0.." + (n - 1));
+        int ti = i / tile, li = i % tile;
+        for (int tj = 0; tj < nt; tj++) {
+            long t = (long) ti * nt + tj;
+            int j0 = tj * tile, len = Math.min(tile, n - j0);
+            if (encoding == Encoding.VARINT) {
+                long start = index[(int) t];
+                long[] p = {start + readIntLE(start + 4L * li)};
+                for (int c = 0; c < len; c++) out[j0 + c] = readVarint(p);
+            } else {
+                long pos = fixedTileBase(t) + (long) li * tile * encoding.width;
+                for (int c = 0; c < len; c++, pos += encoding.width) out[j0 + c] = readCell(pos);
+            }
+        }
+        return out;
+    }
+
+    private long fixedTileBase(long t) {
+        return HEADER_BYTES + t * tile * tile * encoding.width;
+    }
+
+    private int readCell(long pos) {
+        MappedByteBuffer seg = segments[(int) (pos / SEGMENT)];
+        int off = (int) (pos % SEGMENT); // cells are aligned, so never split across segments
+        if (encoding == Encoding.INT32) return seg.getInt(off);
+        int v = seg.getShort(off) & 0xFFFF;
+        return v == 0xFFFF ? INF : v;
+    }
+
+    private int readByte(long pos) {
+        return segments[(int) (pos / SEGMENT)].get((int) (pos % SEGMENT)) & 0xFF;
+    }
+
+    private int readIntLE(long pos) {
+        return readByte(pos) | readByte(pos + 1) << 8 | readByte(pos + 2) << 16 | readByte(pos + 3) << 24;
+    }
+
+    // Decodes one cell at p[0] and advances it.
+    private int readVarint(long[] p) {
+        long x = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte(p[0]++);
+            x |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) break;
+        }
+        if (x == 0) return INF;
+        x--;
+        return (int) ((x >>> 1) ^ -(x & 1));
+    }
+
+    public static Writer create(Path path, int n, int tile, Encoding encoding) throws IOException {
+        return new Writer(path, n, tile, encoding);
+    }
+
+    // Accepts rows in any order from any number of threads; close() finishes
+    // the file. Every row must be written exactly once.
+    //
+    // Fixed-width rows go straight to their cells with positional writes.
+    // VARINT rows are buffered per band of `tile` rows, and each band is
+    // encoded and appended once it is complete.
+    public static final class Writer implements Closeable {
+        private final FileChannel ch;
+        private final int n, tile, nt;
+        private final Encoding encoding;
+        private final ThreadLocal<ByteBuffer> buffers;
+        private final int[][][] bands; // VARINT only
+        private final int[] bandFill;
+        private final long[] index;
+        private long end; // VARINT append position
+
+        private Writer(Path path, int n, int tile, Encoding encoding) throws IOException {
+            if (n < 1 || tile < 1) throw new IllegalArgumentException("n and tile must be positive");
+            this.n = n;
+            this.tile = tile;
+            this.nt = tileCount(n, tile);
+            this.encoding = encoding;
+            long tiles = (long) nt * nt;
+            if (encoding == Encoding.VARINT && tiles > MAX_INDEX) {
+                throw new IllegalArgumentException(n + " x " + n + " in " + tile + " x " + tile + " tiles needs "
+                        + tiles + " VARINT tile offsets; at most " + MAX_INDEX + " fit, use a larger tile");
+            }
+            this.ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffers = ThreadLocal.withInitial(() ->
+                    ByteBuffer.allocate(Math.max(tile * 4, 8)).order(ByteOrder.LITTLE_ENDIAN));
+            if (encoding == Encoding.VARINT) {
+                bands = new int[nt][][];
+                bandFill = new int[nt];
+                index = new long[(int) tiles];
+                end = HEADER_BYTES;
+            } else {
+                bands = null;
+                bandFill = null;
+                index = null;
+            }
+        }
+
+        // Stores row[off .. off + n) as row i.
+        public void setRow(int i, int[] row, int off) throws IOException {
+            if (i < 0 || i >= n) throw new IndexOutOfBoundsException("Row " + i + " outside 0.." + (n - 1));
+            if (encoding == Encoding.VARINT) {
+                bufferRow(i, row, off);
+                return;
+            }
+            ByteBuffer buf = buffers.get();
+            int ti = i / tile, li = i % tile;
+            for (int tj = 0; tj < nt; tj++) {
+                int j0 = tj * tile, len = Math.min(tile, n - j0);
+                buf.clear();
+                for (int c = 0; c < len; c++) {
+                    int d = row[off + j0 + c];
+                    if (encoding == Encoding.INT32) {
+                        buf.putInt(d);
+                    } else {
+                        if (d != INF && (d < 0 || d > 0xFFFE)) {
+                            throw new IllegalArgumentException("Distance " + d + " at (" + i + ", " + (j0 + c) + ") does not fit UINT16");
+                        }
+                        buf.putShort((short) (d == INF ? 0xFFFF : d));
+                    }
+                }
+                buf.flip();
+                long pos = HEADER_BYTES + (((long) ti * nt + tj) * tile * tile + (long) li * tile) * encoding.width;
+                while (buf.hasRemaining()) pos += ch.write(buf, pos);
+            }
+        }
+
+        private void bufferRow(int i, int[] row, int off) throws IOException {
+            int ti = i / tile, rows = Math.min(tile, n - ti * tile);
+            int[][] band;
+            synchronized (bands) {
+                if (bands[ti] == null) bands[ti] = new int[rows][];
+                band = bands[ti];
+            }
+            synchronized (band) {
+                // An empty band has already been flushed.
+                if (band.length == 0 || band[i % tile] != null) throw new IllegalStateException("Row " + i + " written twice");
+                band[i % tile] = java.util.Arrays.copyOfRange(row, off, off + n);
+                if (++bandFill[ti] < rows) return;
+            }
+            flushBand(ti, band);
+        }
+
+        // Encodes the nt tiles of a complete band and appends them.
+        private void flushBand(int ti, int[][] band) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long[] tileStart = new long[nt];
+            byte[] offsets = new byte[4 * tile];
+            for (int tj = 0; tj < nt; tj++) {
+                int j0 = tj * tile, len = Math.min(tile, n - j0);
+                tileStart[tj] = out.size();
+                ByteArrayOutputStream cells = new ByteArrayOutputStream();
+                for (int r = 0; r < band.length; r++) {
+                    int rel = offsets.length + cells.size();
+                    offsets[4 * r] = (byte) rel;
+                    offsets[4 * r + 1] = (byte) (rel >>> 8);
+                    offsets[4 * r + 2] = (byte) (rel >>> 16);
+                    offsets[4 * r + 3] = (byte) (rel >>> 24);
+                    for (int c = 0; c < len; c++) writeVarint(cells, band[r][j0 + c]);
+                }
+                out.write(offsets);
+                cells.writeTo(out);
+            }
+            ByteBuffer buf = ByteBuffer.wrap(out.toByteArray());
+            long pos;
+            synchronized (this) {
+                pos = end;
+                end += buf.remaining();
+                int t = ti * nt; // below index.length, checked in the constructor
+                for (int tj = 0; tj < nt; tj++) index[t + tj] = pos + tileStart[tj];
+                synchronized (bands) {
+                    bands[ti] = new int[0][]; // done; lets the rows go
+                }
+            }
+            while (buf.hasRemaining()) pos += ch.write(buf, pos);
+        }
+
+        private static void writeVarint(ByteArrayOutputStream out, int d) {
+            long x = d == INF ? 0 : (((long) d << 1) ^ (d >> 31)) + 1;
+            while (x >= 0x80) {
+                out.write((int) (x & 0x7F) | 0x80);
+                x >>>= 7;
+            }
+            out.write((int) x);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                long indexOffset = 0;
+                if (encoding == Encoding.VARINT) {
+                    for (int ti = 0; ti < nt; ti++) {
+                        if (bands[ti] == null || bands[ti].length != 0) throw new IllegalStateException("Rows of band " + ti + " are missing");
+                    }
+                    indexOffset = end;
+                    ByteBuffer buf = ByteBuffer.allocate(8 * index.length).order(ByteOrder.LITTLE_ENDIAN);
+                    buf.asLongBuffer().put(index);
+                    for (long pos = indexOffset; buf.hasRemaining(); ) pos += ch.write(buf, pos);
+                }
+                ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                h.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(tile).putInt(encoding.ordinal()).putInt(0).putLong(indexOffset);
+                h.clear();
+                for (long pos = 0; h.hasRemaining(); ) pos += ch.write(h, pos);
+            } finally {
+                ch.close();
+            }
+        }
+    }
+}
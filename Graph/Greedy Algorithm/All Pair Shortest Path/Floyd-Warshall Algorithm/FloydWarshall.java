@@ -1,70 +1,102 @@
+import java.util.Random;
 import java.util.Scanner;
 
 public class FloydWarshall {
-    final static int INF = 99999;
+    // No path. Sums involving INF stay INF (saturating), so real distances of any
+    // size are safe as long as finite sums fit in an int.
+    final static int INF = Integer.MAX_VALUE;
+    final static int INPUT_INF = 99999; // what the interactive input uses for "no edge"
+    final static int DEFAULT_BLOCK = 64; // 64 x 64 ints = 16 KB per tile
 
     public static void floydWarshall(int[][] dist, int n) {
+        int[] flat = toFlat(dist, n);
+        floydWarshall(flat, n, DEFAULT_BLOCK);
+        for (int i = 0; i < n; i++) System.arraycopy(flat, i * n, dist[i], 0, n);
+
+        if (hasNegativeCycle(flat, n)) {
+            // dist[i][i] < 0 exactly for the vertices on some negative closed walk.
+            System.out.print("Negative weight cycle through vertices:");
+            for (int i = 0; i < n; i++) if (flat[i * n + i] < 0) System.out.print(" " + i);
+            System.out.println();
+            return;
+        }
+        printSolution(dist, n);
+    }
+
+    // Textbook k-i-j loop on int[][], kept as the reference for the blocked version.
+    static void floydWarshallClassic(int[][] dist, int n) {
         for (int k = 0; k < n; k++) {
             for (int i = 0; i < n; i++) {
+                int dik = dist[i][k];
+                if (dik == INF) continue;
                 for (int j = 0; j < n; j++) {
-                    if (dist[i][k] + dist[k][j] < dist[i][j]) {
-                        dist[i][j] = dist[i][k] + dist[k][j];
+                    int dkj = dist[k][j];
+                    if (dkj != INF && dik + dkj < dist[i][j]) {
+                        dist[i][j] = dik + dkj;
                     }
                 }
             }
         }
-
-        printSolution(dist, n);
     }
 
-    public static void printSolution(int[][] dist, int n) {
-        System.out.println("Shortest distances between every pair of vertices:");
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (dist[i][j] == INF)
-                    System.out.print("INF ");
-                else
-                    System.out.print(dist[i][j] + " ");
-            }
-            System.out.println();
-        }
+    // Blocked Floyd-Warshall on a row-major n x n matrix, in place. For each
+    // diagonal tile kb, in three phases:
+    //   1. the diagonal tile (kb, kb) against itself;
+    //   2. the tiles in row kb and column kb, using the finished diagonal tile;
+    //   3. every other tile (ib, jb), using tiles (ib, kb) and (kb, jb).
+    // Each phase touches only three tiles at a time, so they stay in cache.
+    static void floydWarshall(int[] dist, int n, int block) {
+        floydWarshall(dist, n, block, MinPlusKernel.SCALAR);
     }
 
-    public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+    // Same, with the row update done by the given kernel (see MinPlusKernel.best()).
+    static void floydWarshall(int[] dist, int n, int block, MinPlusKernel kernel) {
+        if (block < 1) throw new IllegalArgumentException("block size must be positive, got " + block);
+        for (int kb = 0; kb < n; kb += block) {
+            int ke = Math.min(kb + block, n);
 
-        System.out.print("Enter number of vertices: ");
-        int n = sc.nextInt();
+            relaxTile(dist, n, kb, ke, kb, ke, kb, ke, kernel);
 
-        int[][] graph = new int[n][n];
+            for (int b = 0; b < n; b += block) {
+                if (b == kb) continue;
+                int be = Math.min(b + block, n);
+                relaxTile(dist, n, kb, ke, b, be, kb, ke, kernel); // row panel
+                relaxTile(dist, n, b, be, kb, ke, kb, ke, kernel); // column panel
+            }
 
-        System.out.println("Enter the adjacency matrix (use 99999 for infinity):");
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                graph[i][j] = sc.nextInt();
+            for (int ib = 0; ib < n; ib += block) {
+                if (ib == kb) continue;
+                int ie = Math.min(ib + block, n);
+                for (int jb = 0; jb < n; jb += block) {
+                    if (jb == kb) continue;
+                    relaxTile(dist, n, ib, ie, jb, Math.min(jb + block, n), kb, ke, kernel);
+                }
             }
         }
-
-        floydWarshall(graph, n);
-        sc.close();
     }
-}import java.util.Scanner;
-
-public class FloydWarshall {
-    final static int INF = 99999;
 
-    public static void floydWarshall(int[][] dist, int n) {
-        for (int k = 0; k < n; k++) {
-            for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
-                    if (dist[i][k] + dist[k][j] < dist[i][j]) {
-                        dist[i][j] = dist[i][k] + dist[k][j];
-                    }
-                }
+    // dist[i][j] = min(dist[i][j], dist[i][k] + dist[k][j]) for i, j, k in the given ranges.
+    static void relaxTile(int[] dist, int n, int i0, int i1, int j0, int j1, int k0, int k1, MinPlusKernel kernel) {
+        for (int k = k0; k < k1; k++) {
+            int kRow = k * n;
+            for (int i = i0; i < i1; i++) {
+                int dik = dist[i * n + k];
+                if (dik == INF) continue;
+                kernel.relax(dist, i * n + j0, dik, dist, kRow + j0, j1 - j0);
             }
         }
+    }
 
-        printSolution(dist, n);
+    static int[] toFlat(int[][] m, int n) {
+        int[] flat = new int[n * n];
+        for (int i = 0; i < n; i++) System.arraycopy(m[i], 0, flat, i * n, n);
+        return flat;
+    }
+
+    // True if some vertex reaches itself at negative cost; distances are then meaningless.
+    static boolean hasNegativeCycle(int[] dist, int n) {
+        for (int i = 0; i < n; i++) if (dist[i * n + i] < 0) return true;
+        return false;
     }
 
     public static void printSolution(int[][] dist, int n) {
@@ -80,7 +112,48 @@ public class FloydWarshall {
         }
     }
 
+    // Random sparse-ish matrix: each pair has an edge with probability 1/4.
+    static int[][] randomMatrix(int n, long seed) {
+        Random rnd = new Random(seed);
+        int[][] m = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                m[i][j] = i == j ? 0 : rnd.nextInt(4) == 0 ? 1 + rnd.nextInt(1000) : INF;
+            }
+        }
+        return m;
+    }
+
+    // Classic int[][] loop vs blocked flat matrix, single thread:
+    //   java FloydWarshall --bench n [block]
+    static void bench(int n, int block) {
+        int[][] m = randomMatrix(n, 11);
+        int[] flat = toFlat(m, n);
+
+        long t0 = System.nanoTime();
+        floydWarshallClassic(m, n);
+        long t1 = System.nanoTime();
+        floydWarshall(flat, n, block);
+        long t2 = System.nanoTime();
+
+        boolean same = true;
+        for (int i = 0; i < n && same; i++) {
+            for (int j = 0; j < n; j++) {
+                if (m[i][j] != flat[i * n + j]) {
+                    same = false;
+                    break;
+                }
+            }
+        }
+        System.out.printf("n = %d: classic %.1f ms, blocked (block %d) %.1f ms, speedup %.2fx, same result: %b%n",
+                n, (t1 - t0) / 1e6, block, (t2 - t1) / 1e6, (double) (t1 - t0) / (t2 - t1), same);
+    }
+
     public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals("--bench")) {
+            bench(Integer.parseInt(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BLOCK);
+            return;
+        }
         Scanner sc = new Scanner(System.in);
 
         System.out.print("Enter number of vertices: ");
@@ -91,7 +164,8 @@ public class FloydWarshall {
         System.out.println("Enter the adjacency matrix (use 99999 for infinity):");
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                graph[i][j] = sc.nextInt();
+                int w = sc.nextInt();
+                graph[i][j] = w == INPUT_INF ? INF : w;
             }
         }
 
@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+// Inner loop of min-plus (tropical) matrix arithmetic:
+//   dst[dOff + j] = min(dst[dOff + j], a + src[sOff + j])   for j < len
+// where a is finite and src entries equal to FloydWarshall.INF are skipped.
+// Floyd-Warshall uses it with dst == src; a min-plus product uses separate
+// matrices. dst and src may alias only if the ranges are identical or disjoint.
+//
+// best() returns the Vector API kernel in vector/VectorMinPlusKernel.java when
+// it was compiled and jdk.incubator.vector is present, otherwise SCALAR:
+//   javac *.java
+//   javac --add-modules jdk.incubator.vector -cp . vector/VectorMinPlusKernel.java -d .
+//   java --add-modules jdk.incubator.vector MinPlusKernel
+interface MinPlusKernel {
+    int INF = FloydWarshall.INF;
+
+    void relax(int[] dst, int dOff, int a, int[] src, int sOff, int len);
+
+    MinPlusKernel SCALAR = (dst, dOff, a, src, sOff, len) -> {
+        for (int j = 0; j < len; j++) {
+            int s = src[sOff + j];
+            if (s != INF && a + s < dst[dOff + j]) {
+                dst[dOff + j] = a + s;
+            }
+        }
+    };
+
+    static MinPlusKernel best() {
+        try {
+            return (MinPlusKernel) Class.forName("VectorMinPlusKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return SCALAR; // not compiled, or the incubator module is not loaded
+        }
+    }
+
+    // c = a (min,+) b for row-major n x n matrices. Uses the i-k-j order, so
+    // each kernel call streams one row of b.
+    static int[] product(int[] a, int[] b, int n, MinPlusKernel kernel) {
+        int[] c = new int[n * n];
+        Arrays.fill(c, INF);
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < n; k++) {
+                int aik = a[i * n + k];
+                if (aik != INF) kernel.relax(c, i * n, aik, b, k * n, n);
+            }
+        }
+        return c;
+    }
+
+    // All-pairs distances by repeated squaring: after t squarings every path of
+    // up to 2^t edges is covered. O(n^3 log n), but each step is one product.
+    static int[] pathDoubling(int[] dist, int n, MinPlusKernel kernel) {
+        int[] d = dist;
+        for (int len = 1; len < n - 1; len *= 2) d = product(d, d, n, kernel);
+        return d;
+    }
+
+    // Blocked Floyd-Warshall and path doubling with the scalar and the best kernel:
+    //   java [--add-modules jdk.incubator.vector] MinPlusKernel [n] [block]
+    static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+        int block = args.length > 1 ? Integer.parseInt(args[1]) : FloydWarshall.DEFAULT_BLOCK;
+        MinPlusKernel best = best();
+        System.out.println("kernel: " + (best == SCALAR ? "scalar (Vector API not available)" : best));
+
+        int[] input = FloydWarshall.toFlat(FloydWarshall.randomMatrix(n, 11), n);
+        int[] scalar = input.clone(), vector = input.clone();
+        long t0 = System.nanoTime();
+        FloydWarshall.floydWarshall(scalar, n, block, SCALAR);
+        long t1 = System.nanoTime();
+        FloydWarshall.floydWarshall(vector, n, block, best);
+        long t2 = System.nanoTime();
+        System.out.printf("Floyd-Warshall n = %d: scalar %.1f ms, best %.1f ms, speedup %.2fx, same result: %b%n",
+                n, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (double) (t1 - t0) / (t2 - t1), Arrays.equals(scalar, vector));
+
+        int m = Math.min(n, 512);
+        int[] small = FloydWarshall.toFlat(FloydWarshall.randomMatrix(m, 12), m);
+        int[] expected = small.clone();
+        FloydWarshall.floydWarshall(expected, m, block);
+        long t3 = System.nanoTime();
+        int[] doubled = pathDoubling(small, m, best);
+        long t4 = System.nanoTime();
+        System.out.printf("path doubling n = %d: %.1f ms, matches Floyd-Warshall: %b%n",
+                m, (t4 - t3) / 1e6, Arrays.equals(expected, doubled));
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Blocked Floyd-Warshall with the per-phase tile updates spread over a
+// ForkJoinPool. Within one diagonal step kb, every row/column panel tile reads
+// only the finished diagonal tile and writes only itself, and every remaining
+// tile reads only panel tiles and writes only itself. So the tiles of a phase
+// run in any order, and the result is bit-identical to
+// FloydWarshall.floydWarshall(dist, n, block).
+public class ParallelFloydWarshall {
+    private final ForkJoinPool pool;
+    private final MinPlusKernel kernel;
+
+    public ParallelFloydWarshall(int threads) {
+        this(threads, MinPlusKernel.SCALAR);
+    }
+
+    public ParallelFloydWarshall(int threads, MinPlusKernel kernel) {
+        this.pool = new ForkJoinPool(threads);
+        this.kernel = kernel;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public void floydWarshall(int[] dist, int n, int block) {
+        if (block < 1) throw new IllegalArgumentException("block size must be positive, got " + block);
+        int nb = (n + block - 1) / block;
+        for (int kb = 0; kb < nb; kb++) {
+            int k0 = kb * block, k1 = Math.min(k0 + block, n);
+            FloydWarshall.relaxTile(dist, n, k0, k1, k0, k1, k0, k1, kernel);
+            // Phase 2: tile t < nb is (kb, t) in the row panel, t >= nb is (t - nb, kb) in the column panel.
+            pool.invoke(new TileTask(dist, n, block, kb, nb, true, 0, 2 * nb));
+            // Phase 3: tile t is (t / nb, t % nb).
+            pool.invoke(new TileTask(dist, n, block, kb, nb, false, 0, nb * nb));
+        }
+    }
+
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] dist;
+        final int n, block, kb, nb; // nb = tiles per side
+        final boolean panels;
+        final int lo, hi; // tile index range
+
+        TileTask(int[] dist, int n, int block, int kb, int nb, boolean panels, int lo, int hi) {
+            this.dist = dist;
+            this.n = n;
+            this.block = block;
+            this.kb = kb;
+            this.nb = nb;
+            this.panels = panels;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TileTask(dist, n, block, kb, nb, panels, lo, mid),
+                          new TileTask(dist, n, block, kb, nb, panels, mid, hi));
+                return;
+            }
+            int ib, jb;
+            if (panels) {
+                ib = lo < nb ? kb : lo - nb;
+                jb = lo < nb ? lo : kb;
+                if (ib == kb && jb == kb) return; // diagonal tile, done in phase 1
+            } else {
+                ib = lo / nb;
+                jb = lo % nb;
+                if (ib == kb || jb == kb) return; // done in phases 1 and 2
+            }
+            int k0 = kb * block, i0 = ib * block, j0 = jb * block;
+            FloydWarshall.relaxTile(dist, n, i0, Math.min(i0 + block, n), j0, Math.min(j0 + block, n),
+                    k0, Math.min(k0 + block, n), kernel);
+        }
+    }
+
+    // Scaling table against the sequential blocked version:
+    //   java ParallelFloydWarshall [n1,n2,...] [maxThreads] [block]
+    public static void main(String[] args) {
+        String sizes = args.length > 0 ? args[0] : "4096,8192,16384";
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int block = args.length > 2 ? Integer.parseInt(args[2]) : FloydWarshall.DEFAULT_BLOCK;
+
+        System.out.println("      n threads        ms   speedup   identical");
+        for (String s : sizes.split(",")) {
+            int n = Integer.parseInt(s.trim());
+            int[] input = FloydWarshall.toFlat(FloydWarshall.randomMatrix(n, 11), n);
+
+            int[] expected = input.clone();
+            long t0 = System.nanoTime();
+            FloydWarshall.floydWarshall(expected, n, block);
+            double one = (System.nanoTime() - t0) / 1e6;
+            System.out.printf("%7d %7s %9.1f %9.2f %11s%n", n, "seq", one, 1.0, "-");
+
+            for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(2 * threads, maxThreads) : threads + 1) {
+                int[] dist = input.clone();
+                ParallelFloydWarshall fw = new ParallelFloydWarshall(threads);
+                long t1 = System.nanoTime();
+                fw.floydWarshall(dist, n, block);
+                double ms = (System.nanoTime() - t1) / 1e6;
+                fw.shutdown();
+                System.out.printf("%7d %7d %9.1f %9.2f %11b%n", n, threads, ms, one / ms, Arrays.equals(expected, dist));
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// MinPlusKernel on the Vector API: one IntVector add + min per SPECIES.length()
+// lanes, with lanes whose src entry is INF forced back to INF before the min so
+// that the wrapped-around sum never wins. The tail runs the scalar loop.
+// Loaded reflectively by MinPlusKernel.best(); needs
+//   javac --add-modules jdk.incubator.vector -cp .. VectorMinPlusKernel.java -d ..
+public class VectorMinPlusKernel implements MinPlusKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void relax(int[] dst, int dOff, int a, int[] src, int sOff, int len) {
+        int j = 0;
+        for (int upper = SPECIES.loopBound(len); j < upper; j += SPECIES.length()) {
+            IntVector s = IntVector.fromArray(SPECIES, src, sOff + j);
+            VectorMask<Integer> none = s.compare(VectorOperators.EQ, INF);
+            IntVector sum = s.add(a).blend(INF, none);
+            IntVector.fromArray(SPECIES, dst, dOff + j).min(sum).intoArray(dst, dOff + j);
+        }
+        SCALAR.relax(dst, dOff + j, a, src, sOff + j, len - j);
+    }
+
+    @Override
+    public String toString() {
+        return "Vector API, " + SPECIES.length() + " x int lanes";
+    }
+}
@@ -0,0 +1,153 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// All-pairs distances on demand, for graphs whose V x V matrix does not fit.
+//
+// The constructor runs Johnson's potential phase and reweighting once. After
+// that, row(u) runs a single Dijkstra on the reweighted graph the first time
+// u is asked for. Corrected rows are kept in LRU order under a byte budget.
+// The graph is not changed after construction, so queries only lock the cache
+// map itself and may come from any number of threads. Two threads missing the
+// same row at once both compute it, and the second result is dropped.
+//
+// Returned rows are shared with the cache and must not be modified.
+class APSPOracle {
+    static final int INF = Integer.MAX_VALUE;
+
+    private final Graph g;
+    private final int[] h;
+    private final CSRGraph reweighted;
+    private final long budgetBytes;
+    private final ThreadLocal<IndexedHeap> heaps;
+    private final LinkedHashMap<Integer, int[]> rows = new LinkedHashMap<>(16, 0.75f, true); // access order
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong();
+
+    APSPOracle(Graph g, long budgetBytes) {
+        this.g = g;
+        this.h = g.potentials();
+        if (h == null) throw new IllegalArgumentException("Negative-weight cycle detected.");
+        this.reweighted = g.reweight(h);
+        this.budgetBytes = budgetBytes;
+        this.heaps = ThreadLocal.withInitial(() -> new IndexedHeap(g.V + 1));
+    }
+
+    // Distances from u to every vertex, indexed 1..V; INF if unreachable.
+    int[] row(int u) {
+        if (u < 1 || u > g.V) throw new IndexOutOfBoundsException("Vertex " + u + " not in 1.." + g.V);
+        synchronized (rows) {
+            int[] r = rows.get(u);
+            if (r != null) {
+                hits.incrementAndGet();
+                return r;
+            }
+        }
+        misses.incrementAndGet();
+
+        int[] r = new int[g.V + 1];
+        g.dijkstra(u, reweighted, r, heaps.get());
+        for (int v = 1; v <= g.V; v++) {
+            if (r[v] != INF) r[v] += h[v] - h[u];
+        }
+        long bytes = rowBytes();
+        synchronized (rows) {
+            int[] prev = rows.putIfAbsent(u, r);
+            if (prev != null) return prev;
+            if (bytes > budgetBytes) {
+                rows.remove(u);
+                return r;
+            }
+            usedBytes += bytes;
+            evictToBudget();
+        }
+        return r;
+    }
+
+    int distance(int u, int v) {
+        return row(u)[v];
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    long evictions() {
+        return evictions.get();
+    }
+
+    long usedBytes() {
+        synchronized (rows) {
+            return usedBytes;
+        }
+    }
+
+    private long rowBytes() {
+        return 16L + 4L * (g.V + 1) + 48; // int[] plus map entry and boxed key
+    }
+
+    private void evictToBudget() {
+        Iterator<int[]> it = rows.values().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            it.next();
+            it.remove();
+            usedBytes -= rowBytes();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Skewed distance queries from several threads, spot-checked against a
+    // fresh Dijkstra:
+    //   java APSPOracle [V] [E] [queries] [threads] [budgetMB]
+    public static void main(String[] args) throws Exception {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long budget = (args.length > 4 ? Long.parseLong(args[4]) : 64) << 20;
+
+        Graph g = ParallelJohnson.randomGraph(V, E, 13);
+        long t0 = System.nanoTime();
+        APSPOracle oracle = new APSPOracle(g, budget);
+        System.out.printf("potentials + reweighting: %.1f ms%n", (System.nanoTime() - t0) / 1e6);
+
+        int[] hot = new int[64];
+        Random seeds = new Random(4);
+        for (int i = 0; i < hot.length; i++) hot[i] = 1 + seeds.nextInt(V);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> futures = new ArrayList<>();
+        long t1 = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            long seed = seeds.nextLong();
+            futures.add(pool.submit(() -> {
+                Random rnd = new Random(seed);
+                long sum = 0;
+                for (int q = 0; q < queries / threads; q++) {
+                    int u = rnd.nextInt(20) > 0 ? hot[rnd.nextInt(hot.length)] : 1 + rnd.nextInt(V);
+                    int d = oracle.distance(u, 1 + rnd.nextInt(V));
+                    if (d != INF) sum += d;
+                }
+                return sum;
+            }));
+        }
+        for (Future<Long> f : futures) f.get();
+        pool.shutdown();
+        double ms = (System.nanoTime() - t1) / 1e6;
+
+        int u = hot[0];
+        int[] fresh = g.dijkstra(u, oracle.reweighted), cached = oracle.row(u);
+        boolean ok = true;
+        for (int v = 1; v <= V; v++) {
+            int expected = fresh[v] == INF ? INF : fresh[v] + oracle.h[v] - oracle.h[u];
+            ok &= expected == cached[v];
+        }
+        System.out.printf("%d queries on %d threads in %.1f ms: hits %d, misses %d, evictions %d, %d MB cached, spot check: %b%n",
+                queries, threads, ms, oracle.hits(), oracle.misses(), oracle.evictions(), oracle.usedBytes() >> 20, ok);
+    }
+}
@@ -0,0 +1,34 @@
+import java.util.*;
+
+// Compressed sparse row (CSR) graph: out-edges of u are
+// targets[offsets[u] .. offsets[u + 1]) with matching weights[...].
+class CSRGraph {
+    final int n;
+    final int[] offsets; // length n + 1
+    final int[] targets;
+    final int[] weights;
+
+    CSRGraph(int n, int[] offsets, int[] targets, int[] weights) {
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // Counting sort of an edge stream by source vertex: O(n + E).
+    static CSRGraph fromEdges(int n, List<Edge> edges) {
+        int[] offsets = new int[n + 1];
+        for (Edge e : edges) offsets[e.from + 1]++;
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[edges.size()];
+        int[] weights = new int[edges.size()];
+        for (Edge e : edges) {
+            int slot = next[e.from]++;
+            targets[slot] = e.to;
+            weights[slot] = e.weight;
+        }
+        return new CSRGraph(n, offsets, targets, weights);
+    }
+}
@@ -0,0 +1,6 @@
+class Edge {
+    int from, to, weight;
+    Edge(int u, int v, int w) {
+        from = u; to = v; weight = w;
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.*;
+
+class Graph {
+    int V;
+    List<Edge> edges;
+
+    Graph(int V) {
+        this.V = V;
+        edges = new ArrayList<>();
+    }
+
+    void addEdge(int u, int v, int w) {
+        edges.add(new Edge(u, v, w));
+    }
+
+    int[] dijkstra(int src, CSRGraph g) {
+        int[] dist = new int[V + 1];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[src] = 0;
+
+        PriorityQueue<int[]> pq = new PriorityQueue<>(Comparator.comparingInt(a -> a[1]));
+        pq.offer(new int[]{src, 0});
+
+        while (!pq.isEmpty()) {
+            int[] cur = pq.poll();
+            int u = cur[0];
+            if (cur[1] > dist[u]) continue;
+
+            for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                int v = g.targets[e];
+                if (dist[u] + g.weights[e] < dist[v]) {
+                    dist[v] = dist[u] + g.weights[e];
+                    pq.offer(new int[]{v, dist[v]});
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Same search into caller-owned buffers: dist (length V + 1) is overwritten
+    // and heap is left empty, so both can be reused for the next source.
+    void dijkstra(int src, CSRGraph g, int[] dist, IndexedHeap heap) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[src] = 0;
+        heap.pushOrDecrease(src, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                int v = g.targets[e];
+                if (dist[u] + g.weights[e] < dist[v]) {
+                    dist[v] = dist[u] + g.weights[e];
+                    heap.pushOrDecrease(v, dist[v]);
+                }
+            }
+        }
+    }
+
+    // Steps 1-2: potentials h such that w(u, v) + h[u] - h[v] >= 0, i.e. the
+    // distances from an extra vertex 0 with a zero edge to every vertex.
+    // Returns null on a negative-weight cycle. The edge list is not modified.
+    //
+    // Without negative edges all h are 0 and reweighting changes nothing.
+    // Otherwise a FIFO queue (SPFA) stands in for Bellman-Ford. Vertex 0 is
+    // implicit: every vertex starts at 0 and in the queue. Only vertices whose
+    // h dropped are rescanned. A path that needs more than V edges means a
+    // negative cycle.
+    int[] potentials() {
+        int[] h = new int[V + 1];
+        boolean negative = false;
+        for (Edge e : edges) negative |= e.weight < 0;
+        if (!negative) return h;
+
+        CSRGraph g = CSRGraph.fromEdges(V + 1, edges);
+        int[] len = new int[V + 1]; // edges on the current best path, counting the virtual one
+        boolean[] inQueue = new boolean[V + 1];
+        int[] queue = new int[V + 1]; // ring buffer; a vertex is queued at most once at a time
+        int head = 0, size = 0;
+        for (int v = 1; v <= V; v++) {
+            len[v] = 1;
+            inQueue[v] = true;
+            queue[size++] = v;
+        }
+        while (size > 0) {
+            int u = queue[head];
+            head = head + 1 == queue.length ? 0 : head + 1;
+            size--;
+            inQueue[u] = false;
+            for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                int v = g.targets[e];
+                if (h[u] + g.weights[e] < h[v]) {
+                    h[v] = h[u] + g.weights[e];
+                    len[v] = len[u] + 1;
+                    if (len[v] > V) return null; // Negative cycle
+                    if (!inQueue[v]) {
+                        inQueue[v] = true;
+                        int tail = head + size;
+                        queue[tail >= queue.length ? tail - queue.length : tail] = v;
+                        size++;
+                    }
+                }
+            }
+        }
+        return h;
+    }
+
+    void johnson() {
+        // Steps 1-2: potentials (SPFA in place of Bellman-Ford)
+        int[] h = potentials();
+        if (h == null) {
+            System.out.println("Negative-weight cycle detected.");
+            return;
+        }
+
+        // Step 3: Reweight edges into a CSR graph
+        CSRGraph reweighted = reweight(h);
+
+        // Step 4: Run Dijkstra from each vertex, spread over the cores. Rows are
+        // printed in vertex order as they finish, so only rows that complete
+        // ahead of their turn are kept in memory, never the whole matrix.
+        int threads = Runtime.getRuntime().availableProcessors();
+        ParallelJohnson.run(this, h, reweighted, ParallelJohnson.allSources(V), threads,
+                ParallelJohnson.inOrder(1, 2 * threads, (u, dist) -> {
+                    System.out.println("Shortest distances from vertex " + u + ":");
+                    StringBuilder row = new StringBuilder();
+                    for (int v = 1; v <= V; v++) {
+                        row.append(dist[v] == Integer.MAX_VALUE ? "INF" : String.valueOf(dist[v])).append(' ');
+                    }
+                    System.out.println(row);
+                }));
+    }
+
+    // w'(u, v) = w(u, v) + h[u] - h[v]; edges out of vertex 0 are skipped.
+    CSRGraph reweight(int[] h) {
+        int[] offsets = new int[V + 2];
+        int m = 0;
+        for (Edge e : edges) {
+            if (e.from != 0) {
+                offsets[e.from + 1]++;
+                m++;
+            }
+        }
+        for (int u = 0; u <= V; u++) offsets[u + 1] += offsets[u];
+
+        int[] next = Arrays.copyOf(offsets, V + 1);
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        for (Edge e : edges) {
+            if (e.from == 0) continue;
+            int slot = next[e.from]++;
+            targets[slot] = e.to;
+            weights[slot] = e.weight + h[e.from] - h[e.to];
+        }
+        return new CSRGraph(V + 1, offsets, targets, weights);
+    }
+}
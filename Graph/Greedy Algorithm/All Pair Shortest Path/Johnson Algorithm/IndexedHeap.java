@@ -0,0 +1,74 @@
+import java.util.*;
+
+// Indexed 4-ary min-heap over vertex ids with decrease-key. One instance is
+// reused across Dijkstra runs; it is empty again after each run.
+class IndexedHeap {
+    private static final int D = 4;
+    private final int[] heap, pos, key;
+    private int size;
+
+    IndexedHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        key = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void pushOrDecrease(int v, int k) {
+        if (pos[v] < 0) {
+            key[v] = k;
+            pos[v] = size;
+            heap[size] = v;
+            siftUp(size++);
+        } else if (k < key[v]) {
+            key[v] = k;
+            siftUp(pos[v]);
+        }
+    }
+
+    int pollMin() {
+        int min = heap[0];
+        pos[min] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int p = (i - 1) / D;
+            if (key[heap[p]] <= key[v]) break;
+            heap[i] = heap[p];
+            pos[heap[i]] = i;
+            i = p;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int first = D * i + 1;
+            if (first >= size) break;
+            int best = first;
+            for (int c = first + 1, last = Math.min(first + D, size); c < last; c++) {
+                if (key[heap[c]] < key[heap[best]]) best = c;
+            }
+            if (key[heap[best]] >= key[v]) break;
+            heap[i] = heap[best];
+            pos[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
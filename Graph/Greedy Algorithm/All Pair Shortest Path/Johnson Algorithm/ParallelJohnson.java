@@ -0,0 +1,228 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Step 4 of Johnson's algorithm on a worker pool. After reweighting, the
+// Dijkstra runs from different sources are independent. Each worker owns one
+// dist buffer and one IndexedHeap and reuses them for every source it takes
+// from a shared counter. Rows are corrected back to real distances
+// (d + h[v] - h[u]) and handed to a RowSink.
+class ParallelJohnson {
+
+    // Receives one finished row: dist[v] for v = 1..V, INF as Integer.MAX_VALUE.
+    // dist is the worker's buffer and is overwritten after accept returns.
+    // Called concurrently from several workers.
+    interface RowSink {
+        void accept(int source, int[] dist);
+    }
+
+    // Full APSP: potentials, reweighting, then every source 1..V.
+    // Returns false (and calls nothing) if there is a negative-weight cycle.
+    static boolean apsp(Graph g, int threads, RowSink sink) {
+        int[] h = g.potentials();
+        if (h == null) return false;
+        run(g, h, g.reweight(h), allSources(g.V), threads, sink);
+        return true;
+    }
+
+    static void run(Graph g, int[] h, CSRGraph reweighted, int[] sources, int threads, RowSink sink) {
+        runWorkers(g, sources, threads, (u, dist, heap) -> {
+            g.dijkstra(u, reweighted, dist, heap);
+            correct(dist, h, u);
+            sink.accept(u, dist);
+        }, true);
+    }
+
+    // Passes rows to out in source order first, first + 1, ..., on whichever
+    // worker completes the next one. A row that finishes early is copied and
+    // held until the rows before it are done. A worker more than window rows
+    // ahead waits, so at most window rows are held. This relies on workers
+    // taking sources in increasing order, as run() does.
+    //
+    // If out throws, the row it failed on can never be passed, so the failure
+    // is kept and every waiting or later accept throws it too.
+    static RowSink inOrder(int first, int window, RowSink out) {
+        if (window < 1) throw new IllegalArgumentException("window must be at least 1");
+        return new RowSink() {
+            private final Map<Integer, int[]> held = new HashMap<>();
+            private int next = first;
+            private Throwable failure;
+
+            @Override
+            public synchronized void accept(int u, int[] dist) {
+                try {
+                    while (failure == null && u - next >= window) wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Johnson interrupted", ex);
+                }
+                if (failure != null) throw new IllegalStateException("Row " + next + " was not delivered", failure);
+                if (u != next) {
+                    held.put(u, dist.clone());
+                    return;
+                }
+                try {
+                    out.accept(next, dist);
+                    next++;
+                    for (int[] d; (d = held.remove(next)) != null; next++) out.accept(next, d);
+                } catch (RuntimeException | Error ex) {
+                    failure = ex;
+                    throw ex;
+                } finally {
+                    notifyAll();
+                }
+            }
+        };
+    }
+
+    // Fills matrix[u] (length V + 1) for every source u = 1..V, allocating
+    // missing rows. The rows are the search buffers, so nothing is copied.
+    static void run(Graph g, int[] h, CSRGraph reweighted, int threads, int[][] matrix) {
+        runWorkers(g, allSources(g.V), threads, (u, unused, heap) -> {
+            if (matrix[u] == null) matrix[u] = new int[g.V + 1];
+            g.dijkstra(u, reweighted, matrix[u], heap);
+            correct(matrix[u], h, u);
+        }, false);
+    }
+
+    // Writes row u as V little-endian ints at byte offset (u - 1) * V * 4.
+    // Rows arrive in any order; positional writes need no locking.
+    static RowSink fileSink(FileChannel channel, int V) {
+        ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() ->
+                ByteBuffer.allocateDirect(4 * V).order(ByteOrder.LITTLE_ENDIAN));
+        return (u, dist) -> {
+            ByteBuffer buf = buffers.get();
+            buf.clear();
+            buf.asIntBuffer().put(dist, 1, V);
+            try {
+                for (long pos = (long) (u - 1) * V * 4; buf.hasRemaining(); ) pos += channel.write(buf, pos);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    private static void correct(int[] dist, int[] h, int u) {
+        for (int v = 1; v < dist.length; v++) {
+            if (dist[v] != Integer.MAX_VALUE) dist[v] += h[v] - h[u];
+        }
+    }
+
+    static int[] allSources(int V) {
+        int[] sources = new int[V];
+        for (int i = 0; i < V; i++) sources[i] = i + 1;
+        return sources;
+    }
+
+    private interface Job {
+        void run(int source, int[] dist, IndexedHeap heap);
+    }
+
+    // Fails fast: workers are collected in completion order, so the first
+    // failure is thrown as soon as it happens. It also stops the counter, and
+    // shutdownNow interrupts workers blocked in a sink such as inOrder's.
+    private static void runWorkers(Graph g, int[] sources, int threads, Job job, boolean needsDist) {
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.max(1, Math.min(threads, sources.length));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        CompletionService<Void> done = new ExecutorCompletionService<>(pool);
+        try {
+            for (int t = 0; t < workers; t++) {
+                done.submit(() -> {
+                    int[] dist = needsDist ? new int[g.V + 1] : null;
+                    IndexedHeap heap = new IndexedHeap(g.V + 1);
+                    try {
+                        for (int i; (i = next.getAndIncrement()) < sources.length; ) job.run(sources[i], dist, heap);
+                    } catch (RuntimeException | Error ex) {
+                        next.set(sources.length); // the other workers stop after their current source
+                        throw ex;
+                    }
+                    return null;
+                });
+            }
+            for (int t = 0; t < workers; t++) done.take().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Johnson interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Dijkstra run failed", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+            // Let workers finish their current row, so no sink call happens after run() returns.
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Random graph with negative edges but no negative cycle (w = base + p[u] - p[v]).
+    static Graph randomGraph(int V, int E, long seed) {
+        Random rnd = new Random(seed);
+        int[] p = new int[V + 1];
+        for (int v = 1; v <= V; v++) p[v] = rnd.nextInt(200);
+        Graph g = new Graph(V);
+        for (int i = 0; i < E; i++) {
+            int u = 1 + rnd.nextInt(V), v = 1 + rnd.nextInt(V);
+            g.addEdge(u, v, rnd.nextInt(1000) + p[u] - p[v]);
+        }
+        return g;
+    }
+
+    // Rows from `sources` sources on 1..N threads, checked against one
+    // allocating Dijkstra per source; optionally all V rows to a file:
+    //   java ParallelJohnson [V] [E] [sources] [maxThreads] [out.bin]
+    public static void main(String[] args) throws IOException {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 250_000;
+        int n = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        Graph g = randomGraph(V, E, 7);
+        long t0 = System.nanoTime();
+        int[] h = g.potentials();
+        CSRGraph rw = g.reweight(h);
+        System.out.printf("potentials + reweighting: %.1f ms%n", (System.nanoTime() - t0) / 1e6);
+
+        int[] sources = Arrays.copyOf(allSources(V), Math.min(n, V));
+        long[] expected = new long[V + 1];
+        long t1 = System.nanoTime();
+        for (int u : sources) {
+            int[] d = g.dijkstra(u, rw);
+            correct(d, h, u);
+            expected[u] = checksum(d);
+        }
+        double base = (System.nanoTime() - t1) / 1e6;
+        System.out.printf("%d rows, one allocating Dijkstra each: %.1f ms%n", sources.length, base);
+
+        System.out.println("threads      ms   speedup   matches");
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(2 * threads, maxThreads) : threads + 1) {
+            long[] got = new long[V + 1];
+            long t2 = System.nanoTime();
+            run(g, h, rw, sources, threads, (u, dist) -> got[u] = checksum(dist));
+            double ms = (System.nanoTime() - t2) / 1e6;
+            System.out.printf("%7d %7.1f %9.2f %9b%n", threads, ms, base / ms, Arrays.equals(expected, got));
+        }
+
+        if (args.length > 4) {
+            try (FileChannel ch = FileChannel.open(Paths.get(args[4]), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long t3 = System.nanoTime();
+                run(g, h, rw, allSources(V), maxThreads, fileSink(ch, V));
+                System.out.printf("all %d rows written to %s in %.1f ms%n", V, args[4], (System.nanoTime() - t3) / 1e6);
+            }
+        }
+    }
+
+    private static long checksum(int[] dist) {
+        long s = 0;
+        for (int v = 1; v < dist.length; v++) s = 31 * s + dist[v];
+        return s;
+    }
+}
@@ -0,0 +1,271 @@
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Byte-level integer input shared by the mains of every algorithm folder.
+//
+// A text file is mapped (direct ByteBuffers) and scanned byte by byte, so no
+// String is created per token. The file is split between tokens into chunks
+// that are parsed in parallel and then read back in file order. Like Scanner,
+// any run of non-numeric bytes separates tokens, so line breaks carry no
+// meaning. System.in goes through the same tokenizer as a stream (Reader).
+//
+// This file sits above the algorithm folders; compile a folder with it as
+//   javac -sourcepath "<path to Greedy Algorithm>" -d out *.java
+public class EdgeListParser {
+    private static final long MAX_CHUNK = 1L << 30; // one mapping per chunk must stay below 2 GB
+
+    // A stream of integers: System.in (Reader) or a parsed file (Tokens).
+    interface IntSource {
+        int nextInt() throws IOException;
+
+        boolean hasNext() throws IOException;
+    }
+
+    static final class ParsedEdges {
+        final int V, E;
+        final int[] from, to, weight;
+        final long bytes, nanos;
+
+        ParsedEdges(int V, int E, int[] from, int[] to, int[] weight, long bytes, long nanos) {
+            this.V = V;
+            this.E = E;
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        double megabytesPerSecond() {
+            return (bytes / (1024.0 * 1024.0)) / (nanos / 1e9);
+        }
+    }
+
+    // Integers of one chunk, in file order.
+    private static final class Chunk {
+        int[] tokens = new int[3072];
+        int size;
+
+        void add(int x) {
+            if (size == tokens.length) tokens = Arrays.copyOf(tokens, size * 2);
+            tokens[size++] = x;
+        }
+    }
+
+    // Every integer of a text file, read back in file order.
+    static final class Tokens implements IntSource {
+        final long bytes, nanos;
+        private final Chunk[] chunks;
+        private int c, i; // next token: chunks[c].tokens[i]
+
+        private Tokens(Chunk[] chunks, long bytes, long nanos) {
+            this.chunks = chunks;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (c < chunks.length && i == chunks[c].size) {
+                c++;
+                i = 0;
+            }
+            return c < chunks.length;
+        }
+
+        @Override
+        public int nextInt() throws IOException {
+            if (!hasNext()) throw new EOFException();
+            return chunks[c].tokens[i++];
+        }
+
+        double megabytesPerSecond() {
+            return (bytes / (1024.0 * 1024.0)) / (nanos / 1e9);
+        }
+    }
+
+    // Input for a main(): System.in if args has nothing at index i, otherwise
+    // the file args[i], parsed on args[i + 1] threads (default: all cores).
+    // A binary graph written by GraphFile is mapped instead and replayed as the
+    // "V E / u v w" text it came from. The load rate goes to stderr, so stdout
+    // carries only the program's output.
+    static IntSource open(String[] args, int i) throws IOException {
+        if (args.length <= i) return new Reader(System.in);
+        Path path = Paths.get(args[i]);
+        if (GraphFile.isGraphFile(path)) {
+            long start = System.nanoTime();
+            IntSource edges = GraphFile.edges(path);
+            System.err.printf("Mapped %s in %.1f ms%n", path, (System.nanoTime() - start) / 1e6);
+            return edges;
+        }
+        int threads = args.length > i + 1 ? Integer.parseInt(args[i + 1]) : Runtime.getRuntime().availableProcessors();
+        Tokens t = tokenize(path, threads);
+        System.err.printf("Parsed %s (%d bytes) in %.1f ms: %.1f MB/s on %d threads%n",
+                path, t.bytes, t.nanos / 1e6, t.megabytesPerSecond(), threads);
+        return t;
+    }
+
+    public static Tokens tokenize(Path path, int threads) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+
+            // Chunk boundaries, each moved forward past any token it splits.
+            int k = (int) Math.max(Math.max(threads, 1), (size + MAX_CHUNK - 1) / MAX_CHUNK);
+            long[] bounds = new long[k + 1];
+            bounds[k] = size;
+            for (int i = 1; i < k; i++) {
+                long b = Math.max(bounds[i - 1], size * i / k);
+                bounds[i] = nextSeparator(ch, b, size);
+            }
+
+            Chunk[] chunks = new Chunk[k];
+            if (threads <= 1) {
+                for (int i = 0; i < k; i++) chunks[i] = parseChunk(ch, bounds[i], bounds[i + 1]);
+            } else {
+                ExecutorService pool = Executors.newFixedThreadPool(threads);
+                try {
+                    List<Future<Chunk>> futures = new ArrayList<>();
+                    for (int i = 0; i < k; i++) {
+                        long lo = bounds[i], hi = bounds[i + 1];
+                        futures.add(pool.submit(() -> parseChunk(ch, lo, hi)));
+                    }
+                    for (int i = 0; i < k; i++) chunks[i] = futures.get(i).get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    throw new IOException("Parallel parse of " + path + " failed", ex);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            return new Tokens(chunks, size, System.nanoTime() - start);
+        }
+    }
+
+    public static ParsedEdges parse(Path path) throws IOException {
+        return parse(path, 1);
+    }
+
+    // "V E" and then E edges "u v w"; any tokens after them (such as Dijkstra's
+    // and Bellman's trailing source vertex) are ignored.
+    public static ParsedEdges parse(Path path, int threads) throws IOException {
+        long start = System.nanoTime();
+        Tokens t = tokenize(path, threads);
+        if (!t.hasNext()) throw new EOFException(path + ": missing \"V E\" header");
+        int V = t.nextInt();
+        if (!t.hasNext()) throw new EOFException(path + ": missing \"V E\" header");
+        int E = t.nextInt();
+
+        int[] from = new int[E], to = new int[E], weight = new int[E];
+        int n = 0;
+        try {
+            for (; n < E; n++) {
+                from[n] = t.nextInt();
+                to[n] = t.nextInt();
+                weight[n] = t.nextInt();
+            }
+        } catch (EOFException ex) {
+            throw new EOFException(path + ": header says " + E + " edges, found " + n);
+        }
+        return new ParsedEdges(V, E, from, to, weight, t.bytes, System.nanoTime() - start);
+    }
+
+    private static Chunk parseChunk(FileChannel ch, long lo, long hi) throws IOException {
+        Chunk chunk = new Chunk();
+        if (hi <= lo) return chunk;
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, lo, hi - lo);
+        int len = buf.limit();
+
+        for (int i = 0; i < len; ) {
+            byte c = buf.get(i);
+            if (!isIntStart(c)) {
+                i++;
+                continue;
+            }
+            boolean neg = c == '-';
+            if (neg) i++;
+            int x = 0;
+            while (i < len && isDigit(buf.get(i))) x = x * 10 + (buf.get(i++) - '0');
+            chunk.add(neg ? -x : x);
+        }
+        return chunk;
+    }
+
+    // First position at or after pos that is not inside a token.
+    private static long nextSeparator(FileChannel ch, long pos, long size) throws IOException {
+        while (pos < size) {
+            MappedByteBuffer window = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(4096, size - pos));
+            for (int i = 0; i < window.limit(); i++) {
+                if (!isIntStart(window.get(i))) return pos + i;
+            }
+            pos += window.limit();
+        }
+        return size;
+    }
+
+    // The same tokenizer over a stream, for interactive input on System.in.
+    static final class Reader implements IntSource {
+        private final InputStream in;
+        private final byte[] buf = new byte[1 << 16];
+        private int len, ptr;
+
+        Reader(InputStream in) {
+            this.in = in;
+        }
+
+        private boolean fill() throws IOException {
+            len = Math.max(in.read(buf, 0, buf.length), 0);
+            ptr = 0;
+            return len > 0;
+        }
+
+        // Skips separators; true if a token follows.
+        @Override
+        public boolean hasNext() throws IOException {
+            while (true) {
+                if (ptr == len && !fill()) return false;
+                if (isIntStart(buf[ptr])) return true;
+                ptr++;
+            }
+        }
+
+        @Override
+        public int nextInt() throws IOException {
+            if (!hasNext()) throw new EOFException();
+            boolean neg = buf[ptr] == '-';
+            if (neg) ptr++;
+            int x = 0;
+            while (true) {
+                if (ptr == len && !fill()) break;
+                byte c = buf[ptr];
+                if (!isDigit(c)) break;
+                x = x * 10 + (c - '0');
+                ptr++;
+            }
+            return neg ? -x : x;
+        }
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIntStart(byte c) {
+        return c == '-' || isDigit(c);
+    }
+
+    // java EdgeListParser input.txt [threads]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java EdgeListParser <input.txt> [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ParsedEdges p = parse(Paths.get(args[0]), threads);
+        System.out.printf("Parsed %d vertices, %d edges (%d bytes) in %.1f ms: %.1f MB/s on %d threads%n",
+                p.V, p.E, p.bytes, p.nanos / 1e6, p.megabytesPerSecond(), threads);
+    }
+}
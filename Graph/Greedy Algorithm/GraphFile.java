@@ -0,0 +1,234 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+// Binary on-disk CSR graph, loaded with FileChannel.map so the arrays are read
+// straight from the page cache instead of being parsed onto the heap.
+//
+// Layout (little-endian):
+//   int  magic    'CSRG'
+//   int  version  1
+//   int  V        number of vertex slots (offsets has V + 1 entries)
+//   int  flags    bit 0 = undirected (each edge was stored in both directions)
+//                 bit 1 = one-based  (the text used ids 1..V; slot 0 is empty)
+//   long E
+//   int[V + 1] offsets, int[E] targets, int[E] weights
+//
+// Each array is mapped as its own region, so a section may be up to 2 GB (~536M ints).
+//
+// Like EdgeListParser, this file sits above the algorithm folders. Any main that
+// reads through EdgeListParser.open also accepts a graph file in place of the
+// text: edges() replays it as the "V E / u v w" list it was converted from.
+public class GraphFile {
+    static final int MAGIC = 0x47525343; // "CSRG" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int FLAG_UNDIRECTED = 1;
+    static final int FLAG_ONE_BASED = 2;
+
+    // Read-only view over a mapped graph file: the edges of u are
+    // targets/weights[offsets[u] .. offsets[u + 1]).
+    static final class MappedGraph {
+        final int V;
+        final int E;
+        final int flags;
+        final IntBuffer offsets, targets, weights;
+
+        MappedGraph(int V, int E, int flags, IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+            this.V = V;
+            this.E = E;
+            this.flags = flags;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        boolean undirected() {
+            return (flags & FLAG_UNDIRECTED) != 0;
+        }
+
+        boolean oneBased() {
+            return (flags & FLAG_ONE_BASED) != 0;
+        }
+    }
+
+    // Replays a mapped graph as the text it was converted from: "V E" and then
+    // E triples "u v w", grouped by u. An undirected graph stores u-v at both
+    // ends, so only the copy with u < v is emitted; a self-loop u-u is stored
+    // twice at u, so every second one is skipped.
+    static final class EdgeStream implements EdgeListParser.IntSource {
+        private final MappedGraph g;
+        private final int[] header;
+        private int h, u = -1, e, end, field, loops;
+        private boolean ready; // e is an edge to emit and its triple is not finished
+
+        EdgeStream(MappedGraph g) {
+            this.g = g;
+            int E = g.undirected() ? g.E / 2 : g.E;
+            header = new int[]{g.oneBased() ? g.V - 1 : g.V, E};
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (h < header.length || ready) return true;
+            for (; ; e++) {
+                while (e == end) {
+                    if (++u == g.V) return false;
+                    e = g.offsets.get(u);
+                    end = g.offsets.get(u + 1);
+                    loops = 0;
+                }
+                int v = g.targets.get(e);
+                if (!g.undirected() || u < v || (u == v && loops++ % 2 == 0)) return ready = true;
+            }
+        }
+
+        @Override
+        public int nextInt() throws IOException {
+            if (!hasNext()) throw new EOFException();
+            if (h < header.length) return header[h++];
+            switch (field) {
+                case 0: field = 1; return u;
+                case 1: field = 2; return g.targets.get(e);
+                default:
+                    field = 0;
+                    ready = false;
+                    return g.weights.get(e++);
+            }
+        }
+    }
+
+    public static void write(Path path, int V, int[] offsets, int[] targets, int[] weights, int flags) throws IOException {
+        int E = offsets[V];
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(V).putInt(flags).putLong(E).flip();
+            writeFully(ch, header);
+
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(ch, buf, offsets, V + 1);
+            writeInts(ch, buf, targets, E);
+            writeInts(ch, buf, weights, E);
+        }
+    }
+
+    // Writes a parsed edge list. Ids 0..V-1 are stored as they are; if the list
+    // uses V itself (ids 1..V) the graph gets V + 1 slots and FLAG_ONE_BASED.
+    // Undirected input stores every edge in both directions.
+    public static void write(Path path, EdgeListParser.ParsedEdges p, boolean undirected) throws IOException {
+        int max = -1;
+        for (int i = 0; i < p.E; i++) {
+            int lo = Math.min(p.from[i], p.to[i]), hi = Math.max(p.from[i], p.to[i]);
+            if (lo < 0 || hi > p.V) throw new IOException("edge " + i + " (" + p.from[i] + ", " + p.to[i]
+                    + ") is outside 0.." + p.V);
+            max = Math.max(max, hi);
+        }
+        boolean oneBased = max == p.V;
+        int V = oneBased ? p.V + 1 : p.V;
+        int E = undirected ? 2 * p.E : p.E;
+
+        // Counting sort of the (from, to, weight) triples by source vertex.
+        int[] offsets = new int[V + 1];
+        for (int i = 0; i < p.E; i++) {
+            offsets[p.from[i] + 1]++;
+            if (undirected) offsets[p.to[i] + 1]++;
+        }
+        for (int u = 0; u < V; u++) offsets[u + 1] += offsets[u];
+        int[] next = Arrays.copyOf(offsets, V);
+        int[] targets = new int[E], weights = new int[E];
+        for (int i = 0; i < p.E; i++) {
+            int slot = next[p.from[i]]++;
+            targets[slot] = p.to[i];
+            weights[slot] = p.weight[i];
+            if (undirected) {
+                slot = next[p.to[i]]++;
+                targets[slot] = p.from[i];
+                weights[slot] = p.weight[i];
+            }
+        }
+        write(path, V, offsets, targets, weights, (undirected ? FLAG_UNDIRECTED : 0) | (oneBased ? FLAG_ONE_BASED : 0));
+    }
+
+    public static MappedGraph map(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) throw new IOException(path + ": too short for a graph header");
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) throw new IOException(path + ": not a CSR graph file");
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException(path + ": unsupported graph file version " + version);
+            int V = header.getInt();
+            int flags = header.getInt();
+            long E = header.getLong();
+            if (V < 0 || E < 0 || E > Integer.MAX_VALUE)
+                throw new IOException(path + ": bad header (V=" + V + ", E=" + E + ")");
+
+            long expected = HEADER_BYTES + 4L * (V + 1) + 8L * E;
+            if (ch.size() != expected)
+                throw new IOException(path + ": expected " + expected + " bytes, found " + ch.size());
+
+            // The mappings stay valid after the channel is closed.
+            long pos = HEADER_BYTES;
+            IntBuffer offsets = mapInts(ch, pos, V + 1);
+            pos += 4L * (V + 1);
+            IntBuffer targets = mapInts(ch, pos, E);
+            pos += 4L * E;
+            IntBuffer weights = mapInts(ch, pos, E);
+            return new MappedGraph(V, (int) E, flags, offsets, targets, weights);
+        }
+    }
+
+    static EdgeListParser.IntSource edges(Path path) throws IOException {
+        return new EdgeStream(map(path));
+    }
+
+    // True if the file starts with this format's magic number.
+    static boolean isGraphFile(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) return false;
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && ch.read(magic) >= 0) { }
+            return magic.flip().remaining() == 4 && magic.getInt() == MAGIC;
+        }
+    }
+
+    private static IntBuffer mapInts(FileChannel ch, long pos, long count) throws IOException {
+        return ch.map(FileChannel.MapMode.READ_ONLY, pos, 4 * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static void writeInts(FileChannel ch, ByteBuffer buf, int[] a, int count) throws IOException {
+        IntBuffer view = buf.clear().asIntBuffer();
+        for (int i = 0; i < count; ) {
+            int n = Math.min(view.capacity(), count - i);
+            view.clear();
+            view.put(a, i, n);
+            buf.clear().limit(4 * n);
+            writeFully(ch, buf);
+            i += n;
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    // Converts a text edge list to the binary format:
+    //   java GraphFile input.txt output.bin [--undirected]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java GraphFile <input.txt> <output.bin> [--undirected]");
+            return;
+        }
+        boolean undirected = args.length > 2 && args[2].equals("--undirected");
+
+        long start = System.nanoTime();
+        EdgeListParser.ParsedEdges parsed =
+                EdgeListParser.parse(Paths.get(args[0]), Runtime.getRuntime().availableProcessors());
+        write(Paths.get(args[1]), parsed, undirected);
+        System.out.printf("Parsed at %.1f MB/s; wrote %d vertices, %d edges in %.1f ms%n",
+                parsed.megabytesPerSecond(), parsed.V, undirected ? 2L * parsed.E : parsed.E,
+                (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.*;
+import java.util.*;
+
+// Kruskal's MST over a struct-of-arrays edge list (int[] from, to, weight),
+// with no Edge objects. Edges are ordered by a long key (weight << 32 | index),
+// sorted with Arrays.parallelSort. Equal weights break ties by index, so the
+// result is deterministic. The union-find uses union by rank and path halving.
+//
+// The result is a minimum spanning forest if the graph is disconnected. It is
+// returned as indices into the input arrays, plus the total cost as a long.
+public class Kruskal {
+    private static final int FILTER_BASE = 1 << 16; // Filter-Kruskal sorts directly below this size
+
+    static final class MST {
+        final int[] edges; // indices into the input arrays, in the order they were taken
+        final long cost;
+
+        MST(int[] edges, long cost) {
+            this.edges = edges;
+            this.cost = cost;
+        }
+    }
+
+    // Disjoint sets over 0..n-1.
+    static final class UnionFind {
+        private final int[] parent;
+        private final byte[] rank;
+        private int sets;
+
+        UnionFind(int n) {
+            parent = new int[n];
+            rank = new byte[n];
+            for (int i = 0; i < n; i++) parent[i] = i;
+            sets = n;
+        }
+
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]]; // path halving
+                x = parent[x];
+            }
+            return x;
+        }
+
+        // Returns false if a and b were already in the same set.
+        boolean union(int a, int b) {
+            int ra = find(a), rb = find(b);
+            if (ra == rb) return false;
+            if (rank[ra] < rank[rb]) {
+                parent[ra] = rb;
+            } else if (rank[ra] > rank[rb]) {
+                parent[rb] = ra;
+            } else {
+                parent[rb] = ra;
+                rank[ra]++;
+            }
+            sets--;
+            return true;
+        }
+
+        int sets() {
+            return sets;
+        }
+    }
+
+    // Sort every edge, then scan.
+    static MST kruskal(int V, int[] from, int[] to, int[] weight, int E) {
+        long[] keys = new long[E];
+        for (int i = 0; i < E; i++) keys[i] = key(weight[i], i);
+        Arrays.parallelSort(keys);
+
+        UnionFind uf = new UnionFind(V);
+        int[] taken = new int[Math.max(0, V - 1)];
+        int m = 0;
+        long cost = 0;
+        for (int k = 0; k < E && m < V - 1; k++) {
+            int i = (int) keys[k];
+            if (uf.union(from[i], to[i])) {
+                taken[m++] = i;
+                cost += weight[i];
+            }
+        }
+        return new MST(Arrays.copyOf(taken, m), cost);
+    }
+
+    // Filter-Kruskal (Osipov, Sanders and Singler). Split the edges around a
+    // pivot key and solve the light half first. Then drop every heavy edge
+    // whose endpoints are already connected before sorting the rest. On dense
+    // or random graphs most heavy edges are dropped unsorted. Takes the same
+    // edges as kruskal().
+    static MST filterKruskal(int V, int[] from, int[] to, int[] weight, int E) {
+        int[] idx = new int[E];
+        for (int i = 0; i < E; i++) idx[i] = i;
+        State s = new State(V, from, to, weight);
+        s.run(idx, 0, E);
+        return new MST(Arrays.copyOf(s.taken, s.m), s.cost);
+    }
+
+    private static final class State {
+        final int[] from, to, weight, taken;
+        final UnionFind uf;
+        final Random rnd = new Random(1);
+        int m;
+        long cost;
+
+        State(int V, int[] from, int[] to, int[] weight) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.taken = new int[Math.max(0, V - 1)];
+            this.uf = new UnionFind(V);
+        }
+
+        // Processes idx[lo .. hi) in key order; the slice may be reordered.
+        void run(int[] idx, int lo, int hi) {
+            if (uf.sets() == 1) return;
+            if (hi - lo <= FILTER_BASE) {
+                base(idx, lo, hi);
+                return;
+            }
+            long pivot = pivot(idx, lo, hi);
+            int mid = lo; // idx[lo .. mid) <= pivot
+            for (int k = lo; k < hi; k++) {
+                int i = idx[k];
+                if (key(weight[i], i) <= pivot) {
+                    idx[k] = idx[mid];
+                    idx[mid++] = i;
+                }
+            }
+            if (mid == hi) { // pivot was the largest key; cannot split further
+                base(idx, lo, hi);
+                return;
+            }
+            run(idx, lo, mid);
+            int keep = mid;
+            for (int k = mid; k < hi; k++) {
+                int i = idx[k];
+                if (uf.find(from[i]) != uf.find(to[i])) idx[keep++] = i;
+            }
+            run(idx, mid, keep);
+        }
+
+        private long pivot(int[] idx, int lo, int hi) {
+            long[] sample = new long[31];
+            for (int s = 0; s < sample.length; s++) {
+                int i = idx[lo + rnd.nextInt(hi - lo)];
+                sample[s] = key(weight[i], i);
+            }
+            Arrays.sort(sample);
+            return sample[sample.length / 2];
+        }
+
+        private void base(int[] idx, int lo, int hi) {
+            long[] keys = new long[hi - lo];
+            for (int k = lo; k < hi; k++) keys[k - lo] = key(weight[idx[k]], idx[k]);
+            Arrays.parallelSort(keys);
+            for (int k = 0; k < keys.length && m < taken.length; k++) {
+                int i = (int) keys[k];
+                if (uf.union(from[i], to[i])) {
+                    taken[m++] = i;
+                    cost += weight[i];
+                }
+            }
+        }
+    }
+
+    // Sorts by weight (signed), then by edge index.
+    private static long key(int w, int i) {
+        return (long) w << 32 | i;
+    }
+
+    static void printMST(MST mst, int[] from, int[] to, int[] weight) {
+        System.out.println("Edges in the Minimum Spanning Tree:");
+        for (int i : mst.edges) System.out.println(from[i] + " - " + to[i] + " : " + weight[i]);
+        System.out.println("Total MST weight: " + mst.cost);
+    }
+
+    // Plain Kruskal vs Filter-Kruskal on a random graph.
+    static void bench(int V, int E) {
+        Random rnd = new Random(42);
+        int[] from = new int[E], to = new int[E], w = new int[E];
+        for (int i = 0; i < E; i++) {
+            from[i] = rnd.nextInt(V);
+            to[i] = rnd.nextInt(V);
+            w[i] = 1 + rnd.nextInt(1_000_000);
+        }
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            MST a = kruskal(V, from, to, w, E);
+            long t1 = System.nanoTime();
+            MST b = filterKruskal(V, from, to, w, E);
+            long t2 = System.nanoTime();
+            int[] ea = a.edges.clone(), eb = b.edges.clone();
+            Arrays.sort(ea);
+            Arrays.sort(eb);
+            System.out.printf("sort-all: %7.1f ms   filter: %7.1f ms   %d edges, cost %d, same edges: %b%n",
+                    (t1 - t0) / 1e6, (t2 - t1) / 1e6, a.edges.length, a.cost, Arrays.equals(ea, eb));
+        }
+    }
+
+    // java Kruskal [--filter]                        -> "V E" then E lines "u v w" on stdin
+    // java Kruskal [--filter] edges.txt [threads]    -> the same input from a file, parsed in parallel
+    // java Kruskal --bench V E                       -> both modes on a random graph
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--bench")) {
+            bench(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        boolean filter = args.length > 0 && args[0].equals("--filter");
+        EdgeListParser.IntSource sc = EdgeListParser.open(args, filter ? 1 : 0);
+        int V = sc.nextInt();
+        int E = sc.nextInt();
+        int[] from = new int[E], to = new int[E], weight = new int[E];
+        for (int i = 0; i < E; i++) {
+            from[i] = sc.nextInt();
+            to[i] = sc.nextInt();
+            weight[i] = sc.nextInt();
+        }
+        printMST(filter ? filterKruskal(V, from, to, weight, E) : kruskal(V, from, to, weight, E), from, to, weight);
+    }
+}
@@ -0,0 +1,224 @@
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+// Minimum spanning forest by Boruvka's algorithm, parallel per round:
+//   1. every vertex scans its edges for the cheapest one leaving its component
+//      and lowers best[component] with a CAS-min;
+//   2. each component's best edge is merged with a lock-free union-find
+//      (CAS on the root's parent slot);
+//   3. every vertex looks up its new component.
+// The number of components at least halves each round, so there are
+// O(log V) rounds of O(E) parallel work. Edges are compared by
+// (weight, index), a strict total order, so no round can close a cycle and the
+// forest is the same for every thread count. Unlike PrimMST.prims, which grows
+// one tree from vertex 0, every component of a disconnected graph gets its tree.
+public class Boruvka {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    static final class Forest {
+        final int[] edges; // indices into the input edge arrays
+        final long cost;
+        final int components;
+
+        Forest(int[] edges, long cost, int components) {
+            this.edges = edges;
+            this.cost = cost;
+            this.components = components;
+        }
+    }
+
+    private final int V, E;
+    private final int[] from, to, weight;
+    private final int[] offsets, incident, other, incidentWeight; // per vertex: edge index, far end, weight
+    private final ForkJoinPool pool;
+
+    public Boruvka(int V, int[] from, int[] to, int[] weight, int E, int threads) {
+        this.V = V;
+        this.E = E;
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+        this.pool = new ForkJoinPool(threads);
+
+        offsets = new int[V + 1];
+        for (int i = 0; i < E; i++) {
+            offsets[from[i] + 1]++;
+            offsets[to[i] + 1]++;
+        }
+        for (int u = 0; u < V; u++) offsets[u + 1] += offsets[u];
+        int[] next = Arrays.copyOf(offsets, V);
+        incident = new int[2 * E];
+        other = new int[2 * E];
+        incidentWeight = new int[2 * E];
+        for (int i = 0; i < E; i++) {
+            int a = next[from[i]]++, b = next[to[i]]++;
+            incident[a] = incident[b] = i;
+            other[a] = to[i];
+            other[b] = from[i];
+            incidentWeight[a] = incidentWeight[b] = weight[i];
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public Forest forest() {
+        return pool.submit(this::run).join();
+    }
+
+    private Forest run() {
+        int[] parent = new int[V], comp = new int[V];
+        for (int v = 0; v < V; v++) parent[v] = comp[v] = v;
+        int[] adj = incident.clone(), far = other.clone(), w = incidentWeight.clone();
+        int[] end = Arrays.copyOfRange(offsets, 1, V + 1);
+        long[] best = new long[V];
+        int[] taken = new int[Math.max(0, V - 1)];
+        AtomicInteger m = new AtomicInteger();
+
+        while (true) {
+            Arrays.fill(best, Long.MAX_VALUE);
+            IntStream.range(0, V).parallel().forEach(v -> {
+                // Edges inside the component stay inside, so they are dropped
+                // from v's list for good; v owns its slice, so no locking.
+                int cv = comp[v], keep = offsets[v];
+                long min = Long.MAX_VALUE;
+                for (int k = offsets[v]; k < end[v]; k++) {
+                    if (comp[far[k]] == cv) continue;
+                    long key = (long) w[k] << 32 | adj[k];
+                    adj[keep] = adj[k];
+                    far[keep] = far[k];
+                    w[keep++] = w[k];
+                    min = Math.min(min, key);
+                }
+                end[v] = keep;
+                if (min != Long.MAX_VALUE) casMin(best, cv, min);
+            });
+
+            int before = m.get();
+            IntStream.range(0, V).parallel().forEach(c -> {
+                if (comp[c] != c || best[c] == Long.MAX_VALUE) return;
+                int i = (int) best[c];
+                if (link(parent, from[i], to[i])) taken[m.getAndIncrement()] = i;
+            });
+            if (m.get() == before) break;
+
+            IntStream.range(0, V).parallel().forEach(v -> comp[v] = find(parent, v));
+        }
+
+        int[] edges = Arrays.copyOf(taken, m.get());
+        long cost = 0;
+        for (int i : edges) cost += weight[i];
+        return new Forest(edges, cost, V - edges.length);
+    }
+
+    private static void casMin(long[] a, int i, long x) {
+        long cur;
+        while (x < (cur = (long) LONGS.getVolatile(a, i))) {
+            if (LONGS.compareAndSet(a, i, cur, x)) return;
+        }
+    }
+
+    // Root of x. Path halving writes only ancestors, so racing finds stay valid.
+    private static int find(int[] parent, int x) {
+        while (true) {
+            int p = (int) INTS.getVolatile(parent, x);
+            if (p == x) return x;
+            int gp = (int) INTS.getVolatile(parent, p);
+            if (gp != p) INTS.compareAndSet(parent, x, p, gp);
+            x = gp;
+        }
+    }
+
+    // Joins the sets of a and b, hanging the larger root under the smaller one.
+    // Returns false if they were already joined, e.g. because the component on
+    // the other side of the same edge got there first.
+    private static boolean link(int[] parent, int a, int b) {
+        while (true) {
+            int ra = find(parent, a), rb = find(parent, b);
+            if (ra == rb) return false;
+            int hi = Math.max(ra, rb), lo = Math.min(ra, rb);
+            if (INTS.compareAndSet(parent, hi, hi, lo)) return true;
+        }
+    }
+
+    static void printForest(Forest f, int[] from, int[] to, int[] weight) {
+        System.out.println("Edge\tWeight");
+        for (int i : f.edges) System.out.println(from[i] + " - " + to[i] + "\t" + weight[i]);
+        System.out.println("Total minimum cost of MST: " + f.cost);
+        if (f.components > 1) System.out.println("Graph is disconnected: spanning forest of " + f.components + " trees");
+    }
+
+    // Boruvka on 1..N threads against PrimMST's indexed-heap Prim:
+    //   java Boruvka --compare V E [maxThreads]
+    static void compare(int V, int E, int maxThreads) {
+        Random rnd = new Random(42);
+        int n = E + V - 1;
+        int[] from = new int[n], to = new int[n], w = new int[n];
+        for (int i = 0; i < E; i++) {
+            from[i] = rnd.nextInt(V);
+            to[i] = rnd.nextInt(V);
+            w[i] = 1 + rnd.nextInt(1000);
+        }
+        for (int v = 1; v < V; v++) { // random spanning tree keeps the graph connected
+            from[E + v - 1] = rnd.nextInt(v);
+            to[E + v - 1] = v;
+            w[E + v - 1] = 1 + rnd.nextInt(1000);
+        }
+
+        PrimMST.CSRGraph g = PrimMST.CSRGraph.fromUndirectedEdges(V, from, to, w, n);
+        int[] parent = new int[V], weight = new int[V];
+        long t0 = System.nanoTime();
+        PrimMST.primTree(g, parent, weight, 4);
+        double primMs = (System.nanoTime() - t0) / 1e6;
+        long primCost = 0;
+        for (int v = 1; v < V; v++) primCost += weight[v];
+        System.out.printf("Prim (4-ary heap): %.1f ms, cost %d%n", primMs, primCost);
+
+        System.out.println("threads      ms   same cost as Prim");
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(2 * threads, maxThreads) : threads + 1) {
+            Boruvka b = new Boruvka(V, from, to, w, n, threads);
+            long t1 = System.nanoTime();
+            Forest f = b.forest();
+            double ms = (System.nanoTime() - t1) / 1e6;
+            b.shutdown();
+            System.out.printf("%7d %7.1f %19b%n", threads, ms, f.cost == primCost && f.components == 1);
+        }
+    }
+
+    // java Boruvka [threads [edges.txt [parse threads]]] -> same input as PrimMST, stdin without a file
+    // java Boruvka --compare V E [maxThreads]   -> scaling and agreement with Prim
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--compare")) {
+            compare(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors());
+            return;
+        }
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        EdgeListParser.IntSource sc = EdgeListParser.open(args, 1);
+
+        System.out.print("Enter number of vertices: ");
+        int V = sc.nextInt();
+        System.out.print("Enter number of edges: ");
+        int E = sc.nextInt();
+
+        int[] from = new int[E], to = new int[E], weight = new int[E];
+
+        System.out.println("Enter edges as: source destination weight");
+        for (int i = 0; i < E; i++) {
+            from[i] = sc.nextInt();
+            to[i] = sc.nextInt();
+            weight[i] = sc.nextInt();
+        }
+
+        Boruvka b = new Boruvka(V, from, to, weight, E, threads);
+        printForest(b.forest(), from, to, weight);
+        b.shutdown();
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.*;
+
+// Minimum spanning forest kept up to date under a stream of edge insertions.
+//
+// The forest lives in a link-cut tree in which every forest edge is a node of
+// its own, between its two endpoints, carrying the edge weight. Vertices
+// carry no weight. Inserting (u, v, w):
+//   - u and v in different trees: link them through a new edge node;
+//   - same tree: the path u .. v plus the new edge is a cycle. If w is
+//     lighter than the heaviest edge on that path, cut that edge and link the
+//     new one, otherwise drop the new edge.
+// Each insertion is O(log V) amortized. Edge nodes of removed edges are
+// reused, so memory stays O(V) however many edges are streamed.
+public class IncrementalMST {
+    private static final int NIL = -1;
+
+    private final int V;
+    // Link-cut tree over nodes 0..V-1 (vertices) and V.. (edges).
+    private int[] left, right, par, val, maxNode;
+    private boolean[] flip;
+    private int[] stack = new int[64]; // splay path, for pushing flips top-down
+    // Edge nodes: endpoints, indexed by node - V; the weight is val[node].
+    private int[] eu, ev;
+    private int[] freeNodes = new int[16];
+    private int freeCount, nodeCount;
+    private int edges;
+    private long total;
+
+    public IncrementalMST(int V) {
+        this.V = V;
+        int cap = Math.max(2 * V, 2);
+        left = new int[cap];
+        right = new int[cap];
+        par = new int[cap];
+        val = new int[cap];
+        maxNode = new int[cap];
+        flip = new boolean[cap];
+        eu = new int[cap];
+        ev = new int[cap];
+        Arrays.fill(left, NIL);
+        Arrays.fill(right, NIL);
+        Arrays.fill(par, NIL);
+        for (int v = 0; v < V; v++) {
+            val[v] = Integer.MIN_VALUE;
+            maxNode[v] = v;
+        }
+        nodeCount = V;
+    }
+
+    // Seeds the structure with a spanning forest, e.g. from PrimMST.primTree
+    // (parent[v] = -1 for roots).
+    public static IncrementalMST fromTree(int V, int[] parent, int[] weight) {
+        IncrementalMST mst = new IncrementalMST(V);
+        for (int v = 0; v < V; v++) if (parent[v] >= 0) mst.insert(parent[v], v, weight[v]);
+        return mst;
+    }
+
+    // Returns true if the edge entered the forest.
+    public boolean insert(int u, int v, int w) {
+        if (u == v) return false;
+        if (!connected(u, v)) {
+            addEdge(u, v, w);
+            return true;
+        }
+        makeRoot(u);
+        access(v);
+        splay(v);
+        int heaviest = maxNode[v];
+        if (val[heaviest] <= w) return false;
+        removeEdge(heaviest);
+        addEdge(u, v, w);
+        return true;
+    }
+
+    public long totalWeight() {
+        return total;
+    }
+
+    public int edgeCount() {
+        return edges;
+    }
+
+    public int components() {
+        return V - edges;
+    }
+
+    public boolean connected(int u, int v) {
+        return u == v || findRoot(u) == findRoot(v);
+    }
+
+    // Heaviest forest edge on the path u - v, as {u, v, w}; null if not connected or u == v.
+    public int[] heaviestOnPath(int u, int v) {
+        if (u == v || !connected(u, v)) return null;
+        makeRoot(u);
+        access(v);
+        splay(v);
+        int e = maxNode[v];
+        return new int[]{eu[e - V], ev[e - V], val[e]};
+    }
+
+    // Current forest as parallel arrays; independent of later insertions.
+    static final class Snapshot {
+        final int[] from, to, weight;
+        final long totalWeight;
+        final int components;
+
+        Snapshot(int[] from, int[] to, int[] weight, long totalWeight, int components) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.totalWeight = totalWeight;
+            this.components = components;
+        }
+    }
+
+    public Snapshot snapshot() {
+        int[] f = new int[edges], t = new int[edges], w = new int[edges];
+        int m = 0;
+        boolean[] free = new boolean[nodeCount];
+        for (int k = 0; k < freeCount; k++) free[freeNodes[k]] = true;
+        for (int x = V; x < nodeCount; x++) {
+            if (free[x]) continue;
+            f[m] = eu[x - V];
+            t[m] = ev[x - V];
+            w[m++] = val[x];
+        }
+        return new Snapshot(f, t, w, total, components());
+    }
+
+    private void addEdge(int u, int v, int w) {
+        int x = newNode(w);
+        eu[x - V] = u;
+        ev[x - V] = v;
+        link(u, x);
+        link(x, v);
+        edges++;
+        total += w;
+    }
+
+    private void removeEdge(int x) {
+        cut(eu[x - V], x);
+        cut(x, ev[x - V]);
+        edges--;
+        total -= val[x];
+        if (freeCount == freeNodes.length) freeNodes = Arrays.copyOf(freeNodes, 2 * freeCount);
+        freeNodes[freeCount++] = x;
+    }
+
+    private int newNode(int w) {
+        int x;
+        if (freeCount > 0) {
+            x = freeNodes[--freeCount];
+        } else {
+            x = nodeCount++;
+            if (x == left.length) grow();
+        }
+        left[x] = right[x] = par[x] = NIL;
+        flip[x] = false;
+        val[x] = w;
+        maxNode[x] = x;
+        return x;
+    }
+
+    private void grow() {
+        int cap = 2 * left.length;
+        left = Arrays.copyOf(left, cap);
+        right = Arrays.copyOf(right, cap);
+        par = Arrays.copyOf(par, cap);
+        val = Arrays.copyOf(val, cap);
+        maxNode = Arrays.copyOf(maxNode, cap);
+        flip = Arrays.copyOf(flip, cap);
+        eu = Arrays.copyOf(eu, cap);
+        ev = Arrays.copyOf(ev, cap);
+    }
+
+    // --- link-cut tree (splay trees over preferred paths) ---
+
+    private boolean isSplayRoot(int x) {
+        int p = par[x];
+        return p == NIL || (left[p] != x && right[p] != x);
+    }
+
+    private void pull(int x) {
+        int m = x;
+        if (left[x] != NIL && val[maxNode[left[x]]] > val[m]) m = maxNode[left[x]];
+        if (right[x] != NIL && val[maxNode[right[x]]] > val[m]) m = maxNode[right[x]];
+        maxNode[x] = m;
+    }
+
+    private void push(int x) {
+        if (!flip[x]) return;
+        int l = left[x];
+        left[x] = right[x];
+        right[x] = l;
+        if (left[x] != NIL) flip[left[x]] ^= true;
+        if (right[x] != NIL) flip[right[x]] ^= true;
+        flip[x] = false;
+    }
+
+    private void rotate(int x) {
+        int p = par[x], g = par[p];
+        boolean pRoot = isSplayRoot(p);
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NIL) par[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NIL) par[left[x]] = p;
+            left[x] = p;
+        }
+        par[p] = x;
+        par[x] = g;
+        if (!pRoot) {
+            if (left[g] == p) left[g] = x;
+            else right[g] = x;
+        }
+        pull(p);
+        pull(x);
+    }
+
+    private void splay(int x) {
+        // Push pending flips top-down along the splay path first.
+        int n = 0;
+        for (int y = x; ; y = par[y]) {
+            if (n == stack.length) stack = Arrays.copyOf(stack, 2 * n);
+            stack[n++] = y;
+            if (isSplayRoot(y)) break;
+        }
+        while (n > 0) push(stack[--n]);
+
+        while (!isSplayRoot(x)) {
+            int p = par[x];
+            if (!isSplayRoot(p)) {
+                int g = par[p];
+                rotate((left[g] == p) == (left[p] == x) ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    // Makes the root-to-x path preferred; x ends up as the root of its splay tree.
+    private void access(int x) {
+        int last = NIL;
+        for (int y = x; y != NIL; y = par[y]) {
+            splay(y);
+            right[y] = last;
+            pull(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        flip[x] ^= true;
+    }
+
+    private int findRoot(int x) {
+        access(x);
+        int r = x;
+        while (true) {
+            push(r);
+            if (left[r] == NIL) break;
+            r = left[r];
+        }
+        splay(r);
+        return r;
+    }
+
+    private void link(int x, int y) {
+        makeRoot(x);
+        par[x] = y;
+    }
+
+    private void cut(int x, int y) {
+        makeRoot(x);
+        access(y);
+        // y's splay tree is exactly the path x - y, so x is its left child.
+        left[y] = NIL;
+        par[x] = NIL;
+        pull(y);
+    }
+
+    // Streams random edges in batches and checks the forest after each batch
+    // against a fresh Boruvka run on every edge inserted so far:
+    //   java IncrementalMST [V] [edges] [batches]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int total = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int batches = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Random rnd = new Random(25);
+        int[] from = new int[total], to = new int[total], w = new int[total];
+        for (int i = 0; i < total; i++) {
+            from[i] = rnd.nextInt(V);
+            to[i] = rnd.nextInt(V);
+            w[i] = 1 + rnd.nextInt(1_000_000);
+        }
+
+        IncrementalMST mst = new IncrementalMST(V);
+        long nanos = 0;
+        for (int b = 1; b <= batches; b++) {
+            int lo = (int) ((long) total * (b - 1) / batches), hi = (int) ((long) total * b / batches);
+            long t0 = System.nanoTime();
+            for (int i = lo; i < hi; i++) mst.insert(from[i], to[i], w[i]);
+            nanos += System.nanoTime() - t0;
+
+            Snapshot s = mst.snapshot();
+            Boruvka check = new Boruvka(V, from, to, w, hi, 1);
+            Boruvka.Forest f = check.forest();
+            check.shutdown();
+            System.out.printf("after %d edges: forest weight %d, %d trees; Boruvka from scratch agrees: %b%n",
+                    hi, s.totalWeight, s.components, s.totalWeight == f.cost && s.components == f.components);
+        }
+        System.out.printf("%.2f us per insertion%n", nanos / 1e3 / total);
+    }
+}
@@ -1,3 +1,4 @@
+import java.io.*;
 import java.util.*;
 
 public class PrimMST {
@@ -18,6 +19,120 @@ public class PrimMST {
         }
     }
 
+    // Compressed sparse row (CSR) graph: neighbours of u are
+    // targets[offsets[u] .. offsets[u + 1]) with matching weights[...].
+    // For an undirected graph every edge is stored once in each direction.
+    static final class CSRGraph {
+        final int V;
+        final int[] offsets; // length V + 1
+        final int[] targets;
+        final int[] weights;
+
+        CSRGraph(int V, int[] offsets, int[] targets, int[] weights) {
+            this.V = V;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        // Counting sort of E undirected (u, v, w) edges into both directions: O(V + E).
+        static CSRGraph fromUndirectedEdges(int V, int[] from, int[] to, int[] weight, int E) {
+            int[] offsets = new int[V + 1];
+            for (int i = 0; i < E; i++) {
+                offsets[from[i] + 1]++;
+                offsets[to[i] + 1]++;
+            }
+            for (int u = 0; u < V; u++) offsets[u + 1] += offsets[u];
+
+            int[] next = Arrays.copyOf(offsets, V);
+            int[] targets = new int[2 * E];
+            int[] weights = new int[2 * E];
+            for (int i = 0; i < E; i++) {
+                int a = next[from[i]]++;
+                targets[a] = to[i];
+                weights[a] = weight[i];
+                int b = next[to[i]]++;
+                targets[b] = from[i];
+                weights[b] = weight[i];
+            }
+            return new CSRGraph(V, offsets, targets, weights);
+        }
+    }
+
+    // Indexed d-ary min-heap over vertices 0..n-1. pos[v] locates v in heap[],
+    // so a cheaper edge lowers v's key in place instead of queueing a new Edge.
+    static final class IndexedHeap {
+        private final int d;
+        private final int[] heap, pos, key;
+        private int size;
+
+        IndexedHeap(int capacity, int arity) {
+            d = arity;
+            heap = new int[capacity];
+            pos = new int[capacity];
+            key = new int[capacity];
+            Arrays.fill(pos, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void pushOrDecrease(int v, int k) {
+            if (pos[v] < 0) {
+                key[v] = k;
+                pos[v] = size;
+                heap[size] = v;
+                siftUp(size++);
+            } else if (k < key[v]) {
+                key[v] = k;
+                siftUp(pos[v]);
+            }
+        }
+
+        int pollMin() {
+            int min = heap[0];
+            pos[min] = -1;
+            if (--size > 0) {
+                heap[0] = heap[size];
+                pos[heap[0]] = 0;
+                siftDown(0);
+            }
+            return min;
+        }
+
+        private void siftUp(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int p = (i - 1) / d;
+                if (key[heap[p]] <= key[v]) break;
+                heap[i] = heap[p];
+                pos[heap[i]] = i;
+                i = p;
+            }
+            heap[i] = v;
+            pos[v] = i;
+        }
+
+        private void siftDown(int i) {
+            int v = heap[i];
+            while (true) {
+                int first = d * i + 1;
+                if (first >= size) break;
+                int best = first;
+                for (int c = first + 1, last = Math.min(first + d, size); c < last; c++) {
+                    if (key[heap[c]] < key[heap[best]]) best = c;
+                }
+                if (key[heap[best]] >= key[v]) break;
+                heap[i] = heap[best];
+                pos[heap[i]] = i;
+                i = best;
+            }
+            heap[i] = v;
+            pos[v] = i;
+        }
+    }
+
     public static void prims(int V, List<List<Edge>> graph) {
         boolean[] visited = new boolean[V];
         int[] parent = new int[V];
@@ -49,6 +164,82 @@ public class PrimMST {
             }
         }
 
+        printMST(V, parent, weight);
+    }
+
+    // Same algorithm on the CSR arrays.
+    public static void prims(CSRGraph g) {
+        int[] parent = new int[g.V];
+        int[] weight = new int[g.V];
+        primTree(g, parent, weight);
+        printMST(g.V, parent, weight);
+    }
+
+    public static void prims(CSRGraph g, int arity) {
+        int[] parent = new int[g.V];
+        int[] weight = new int[g.V];
+        primTree(g, parent, weight, arity);
+        printMST(g.V, parent, weight);
+    }
+
+    // Fills parent[v] and weight[v] (the weight of edge parent[v] - v) for the tree grown from vertex 0.
+    static void primTree(CSRGraph g, int[] parent, int[] weight) {
+        int V = g.V;
+        boolean[] visited = new boolean[V];
+        Arrays.fill(weight, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+
+        int[] offsets = g.offsets, targets = g.targets, weights = g.weights;
+        PriorityQueue<Edge> pq = new PriorityQueue<>();
+        weight[0] = 0;
+        pq.add(new Edge(0, 0));
+
+        while (!pq.isEmpty()) {
+            int u = pq.poll().vertex;
+            if (visited[u]) continue;
+            visited[u] = true;
+
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                int w = weights[e];
+                if (!visited[v] && w < weight[v]) {
+                    weight[v] = w;
+                    parent[v] = u;
+                    pq.add(new Edge(v, w));
+                }
+            }
+        }
+    }
+
+    // Same tree using the indexed heap: at most V queue entries and no allocation per edge.
+    static void primTree(CSRGraph g, int[] parent, int[] weight, int arity) {
+        int V = g.V;
+        boolean[] visited = new boolean[V];
+        Arrays.fill(weight, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+
+        int[] offsets = g.offsets, targets = g.targets, weights = g.weights;
+        IndexedHeap heap = new IndexedHeap(V, arity);
+        weight[0] = 0;
+        heap.pushOrDecrease(0, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            visited[u] = true;
+
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                int w = weights[e];
+                if (!visited[v] && w < weight[v]) {
+                    weight[v] = w;
+                    parent[v] = u;
+                    heap.pushOrDecrease(v, w);
+                }
+            }
+        }
+    }
+
+    static void printMST(int V, int[] parent, int[] weight) {
         int totalCost = 0;
         System.out.println("Edge\tWeight");
         for (int i = 1; i < V; i++) {
@@ -58,29 +249,65 @@ public class PrimMST {
         System.out.println("Total minimum cost of MST: " + totalCost);
     }
 
-    public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+    // Times primTree on PriorityQueue<Edge> against the indexed heap on a random graph.
+    static void compareHeaps(int V, int E, int arity) {
+        Random rnd = new Random(42);
+        int[] from = new int[E + V - 1], to = new int[E + V - 1], w = new int[E + V - 1];
+        for (int i = 0; i < E; i++) {
+            from[i] = rnd.nextInt(V);
+            to[i] = rnd.nextInt(V);
+            w[i] = 1 + rnd.nextInt(1000);
+        }
+        for (int v = 1; v < V; v++) { // random spanning tree keeps the graph connected
+            from[E + v - 1] = rnd.nextInt(v);
+            to[E + v - 1] = v;
+            w[E + v - 1] = 1 + rnd.nextInt(1000);
+        }
+        CSRGraph g = CSRGraph.fromUndirectedEdges(V, from, to, w, E + V - 1);
+
+        int[] parent = new int[V], weight = new int[V], weight2 = new int[V];
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            primTree(g, parent, weight);
+            long t1 = System.nanoTime();
+            primTree(g, parent, weight2, arity);
+            long t2 = System.nanoTime();
+            long cost1 = 0, cost2 = 0;
+            for (int v = 1; v < V; v++) {
+                cost1 += weight[v];
+                cost2 += weight2[v];
+            }
+            System.out.printf("PriorityQueue<Edge>: %7.1f ms   %d-ary indexed heap: %7.1f ms   same cost: %b%n",
+                    (t1 - t0) / 1e6, arity, (t2 - t1) / 1e6, cost1 == cost2);
+        }
+    }
+
+    // java PrimMST                          -> interactive input
+    // java PrimMST edges.txt [threads]      -> the same input from a file, parsed in parallel
+    // java PrimMST --compare V E [arity]    -> heap comparison on a random graph
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--compare")) {
+            compareHeaps(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : 4);
+            return;
+        }
+
+        EdgeListParser.IntSource sc = EdgeListParser.open(args, 0);
 
         System.out.print("Enter number of vertices: ");
         int V = sc.nextInt();
         System.out.print("Enter number of edges: ");
         int E = sc.nextInt();
 
-        List<List<Edge>> graph = new ArrayList<>();
-        for (int i = 0; i < V; i++) {
-            graph.add(new ArrayList<>());
-        }
+        int[] from = new int[E], to = new int[E], weight = new int[E];
 
         System.out.println("Enter edges as: source destination weight");
         for (int i = 0; i < E; i++) {
-            int u = sc.nextInt();
-            int v = sc.nextInt();
-            int w = sc.nextInt();
-            graph.get(u).add(new Edge(v, w));
-            graph.get(v).add(new Edge(u, w)); // Undirected graph
+            from[i] = sc.nextInt();
+            to[i] = sc.nextInt();
+            weight[i] = sc.nextInt();
         }
 
-        prims(V, graph);
-        sc.close();
+        prims(CSRGraph.fromUndirectedEdges(V, from, to, weight, E), 4); // Undirected graph
     }
 }
@@ -0,0 +1,282 @@
+import java.io.*;
+import java.util.*;
+
+// Sensitivity of a minimum spanning tree (or forest) to single edge changes,
+// without recomputing the tree:
+//
+//   maxOnPath(u, v)   heaviest tree edge between u and v, by binary lifting:
+//                     up[j][v] is v's 2^j-th ancestor and mx[j][v] the
+//                     heaviest edge on the way there. O(log V) per query.
+//   secondBestCost()  cheapest spanning tree other than the MST: swap in the
+//                     non-tree edge (a, b, w) minimizing w - maxOnPath(a, b).
+//   costWithout(v)    MST cost if tree edge parent[v] - v fails. The cheapest
+//                     non-tree edge whose tree path covers the edge replaces
+//                     it. Non-tree edges are taken by increasing weight, and
+//                     each one claims the uncovered edges on its path. A
+//                     union-find skips edges that are already claimed.
+//
+// Building everything costs O(E log E + V log V).
+public class SecondBestMST {
+    static final long NONE = Long.MAX_VALUE; // no second-best tree / no replacement (a bridge)
+
+    private final int V, LOG;
+    private final int[] parent, parentWeight, depth;
+    private final int[][] up, mx;
+    private final long mstCost;
+    private final int[] from, to, weight;
+    private final int[] replacement; // per child vertex: edge index replacing parent[v] - v, or -1
+    private long secondBest = NONE;
+    private int swapIn = -1, swapOut = -1;
+
+    // parent[v] = -1 marks a root; otherwise weight[v] is the weight of edge
+    // parent[v] - v, as filled by PrimMST.primTree. The forest must be a minimum
+    // spanning forest of the E edges (from[i], to[i], w[i]).
+    public SecondBestMST(int V, int[] parent, int[] weight, int[] from, int[] to, int[] w, int E) {
+        this.V = V;
+        this.LOG = Math.max(1, 32 - Integer.numberOfLeadingZeros(V));
+        this.parent = parent.clone();
+        this.parentWeight = weight.clone();
+        this.from = from;
+        this.to = to;
+        this.weight = w;
+
+        // Children lists, then BFS from every root for depth and the lifting tables.
+        int[] childStart = new int[V + 1], children = new int[V];
+        long cost = 0;
+        for (int v = 0; v < V; v++) {
+            if (parent[v] >= 0) {
+                childStart[parent[v] + 1]++;
+                cost += weight[v];
+            }
+        }
+        mstCost = cost;
+        for (int u = 0; u < V; u++) childStart[u + 1] += childStart[u];
+        int[] next = Arrays.copyOf(childStart, V);
+        for (int v = 0; v < V; v++) if (parent[v] >= 0) children[next[parent[v]]++] = v;
+
+        depth = new int[V];
+        up = new int[LOG][V];
+        mx = new int[LOG][V];
+        int[] order = new int[V];
+        int n = 0;
+        for (int r = 0; r < V; r++) if (parent[r] < 0) order[n++] = r;
+        for (int head = 0; head < n; head++) {
+            int u = order[head];
+            for (int k = childStart[u]; k < childStart[u + 1]; k++) {
+                int v = children[k];
+                depth[v] = depth[u] + 1;
+                order[n++] = v;
+            }
+        }
+        if (n != V) throw new IllegalArgumentException("parent[] has a cycle");
+        for (int v = 0; v < V; v++) {
+            up[0][v] = parent[v] < 0 ? v : parent[v];
+            mx[0][v] = parent[v] < 0 ? Integer.MIN_VALUE : weight[v];
+        }
+        for (int j = 1; j < LOG; j++) {
+            for (int v = 0; v < V; v++) {
+                int mid = up[j - 1][v];
+                up[j][v] = up[j - 1][mid];
+                mx[j][v] = Math.max(mx[j - 1][v], mx[j - 1][mid]);
+            }
+        }
+
+        replacement = new int[V];
+        Arrays.fill(replacement, -1);
+        computeSwaps(nonTreeEdges(E));
+    }
+
+    // Edges of the input that are not tree edges, by increasing (weight, index).
+    // Of several parallel copies of a tree edge, one counts as the tree edge.
+    private long[] nonTreeEdges(int E) {
+        boolean[] claimed = new boolean[V];
+        long[] keys = new long[E];
+        int m = 0;
+        for (int i = 0; i < E; i++) {
+            int a = from[i], b = to[i];
+            if (a == b) continue;
+            if (parent[b] == a && parentWeight[b] == weight[i] && !claimed[b]) {
+                claimed[b] = true;
+            } else if (parent[a] == b && parentWeight[a] == weight[i] && !claimed[a]) {
+                claimed[a] = true;
+            } else {
+                keys[m++] = (long) weight[i] << 32 | i;
+            }
+        }
+        keys = Arrays.copyOf(keys, m);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private void computeSwaps(long[] keys) {
+        int[] jump = new int[V]; // nearest ancestor-or-self whose parent edge is unclaimed
+        for (int v = 0; v < V; v++) jump[v] = v;
+        for (long key : keys) {
+            int i = (int) key, a = from[i], b = to[i];
+            int l = lca(a, b);
+            if (l < 0) throw new IllegalArgumentException("Edge " + a + " - " + b + " joins two trees; not a spanning forest");
+
+            int heaviest = Math.max(climbMax(a, depth[a] - depth[l]), climbMax(b, depth[b] - depth[l]));
+            long delta = (long) weight[i] - heaviest;
+            if (delta < (secondBest == NONE ? NONE : secondBest - mstCost)) {
+                secondBest = mstCost + delta;
+                swapIn = i;
+            }
+
+            for (int end : new int[]{a, b}) {
+                for (int x = find(jump, end); depth[x] > depth[l]; x = find(jump, x)) {
+                    replacement[x] = i;
+                    jump[x] = parent[x];
+                }
+            }
+        }
+        // The path walk is O(depth), so it runs once for the winner, not per improvement.
+        if (swapIn >= 0) {
+            int a = from[swapIn], b = to[swapIn];
+            swapOut = heaviestChild(a, b, lca(a, b), maxOnPath(a, b));
+        }
+    }
+
+    private static int find(int[] jump, int x) {
+        while (jump[x] != x) {
+            jump[x] = jump[jump[x]];
+            x = jump[x];
+        }
+        return x;
+    }
+
+    // Lowest common ancestor, or -1 if u and v are in different trees.
+    int lca(int u, int v) {
+        if (depth[u] < depth[v]) {
+            int t = u;
+            u = v;
+            v = t;
+        }
+        for (int j = LOG - 1; j >= 0; j--) {
+            if (depth[u] - (1 << j) >= depth[v]) u = up[j][u];
+        }
+        if (u == v) return u;
+        for (int j = LOG - 1; j >= 0; j--) {
+            if (up[j][u] != up[j][v]) {
+                u = up[j][u];
+                v = up[j][v];
+            }
+        }
+        return up[0][u] == up[0][v] && parent[u] >= 0 ? up[0][u] : -1;
+    }
+
+    // Weight of the heaviest tree edge on the path u - v; Integer.MIN_VALUE if u == v.
+    int maxOnPath(int u, int v) {
+        int l = lca(u, v);
+        if (l < 0) throw new IllegalArgumentException(u + " and " + v + " are in different trees");
+        return Math.max(climbMax(u, depth[u] - depth[l]), climbMax(v, depth[v] - depth[l]));
+    }
+
+    private int climbMax(int u, int steps) {
+        int best = Integer.MIN_VALUE;
+        for (int j = 0; steps > 0; j++, steps >>= 1) {
+            if ((steps & 1) != 0) {
+                best = Math.max(best, mx[j][u]);
+                u = up[j][u];
+            }
+        }
+        return best;
+    }
+
+    // Child endpoint of the heaviest tree edge on the path a - b (below l).
+    private int heaviestChild(int a, int b, int l, int target) {
+        for (int x : new int[]{a, b}) {
+            for (; x != l; x = parent[x]) if (parentWeight[x] == target) return x;
+        }
+        throw new IllegalStateException("no tree edge of weight " + target);
+    }
+
+    public long mstCost() {
+        return mstCost;
+    }
+
+    // NONE if the graph has no other spanning tree (it is a forest).
+    public long secondBestCost() {
+        return secondBest;
+    }
+
+    // Non-tree edge index added and child vertex whose parent edge is removed.
+    public int secondBestEdgeIn() {
+        return swapIn;
+    }
+
+    public int secondBestVertexOut() {
+        return swapOut;
+    }
+
+    // MST cost without tree edge parent[v] - v; NONE if that edge is a bridge.
+    public long costWithout(int v) {
+        if (parent[v] < 0) throw new IllegalArgumentException(v + " is a root");
+        int i = replacement[v];
+        return i < 0 ? NONE : mstCost - parentWeight[v] + weight[i];
+    }
+
+    // Edge index that replaces parent[v] - v, or -1 for a bridge.
+    public int replacementEdge(int v) {
+        return replacement[v];
+    }
+
+    // Random connected graph; checks every costWithout against rerunning Prim
+    // without that edge when V is small, then times the build:
+    //   java SecondBestMST [V] [E]
+    public static void main(String[] args) throws IOException {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 900;
+
+        Random rnd = new Random(8);
+        int n = E + V - 1;
+        int[] from = new int[n], to = new int[n], w = new int[n];
+        for (int i = 0; i < E; i++) {
+            from[i] = rnd.nextInt(V);
+            to[i] = rnd.nextInt(V);
+            w[i] = 1 + rnd.nextInt(10_000);
+        }
+        for (int v = 1; v < V; v++) {
+            from[E + v - 1] = rnd.nextInt(v);
+            to[E + v - 1] = v;
+            w[E + v - 1] = 1 + rnd.nextInt(10_000);
+        }
+        PrimMST.CSRGraph g = PrimMST.CSRGraph.fromUndirectedEdges(V, from, to, w, n);
+        int[] parent = new int[V], weight = new int[V];
+        PrimMST.primTree(g, parent, weight, 4);
+
+        long t0 = System.nanoTime();
+        SecondBestMST s = new SecondBestMST(V, parent, weight, from, to, w, n);
+        double ms = (System.nanoTime() - t0) / 1e6;
+        System.out.printf("MST cost %d, second-best %s; tables and all replacements in %.1f ms%n", s.mstCost(),
+                s.secondBestCost() == NONE ? "none" : String.valueOf(s.secondBestCost()), ms);
+
+        if (V > 2000) return;
+        // Brute force: drop each tree edge in turn and rerun Prim.
+        int mismatches = 0;
+        long bestOther = NONE;
+        for (int v = 1; v < V; v++) {
+            int[] f = new int[n - 1], t = new int[n - 1], ww = new int[n - 1];
+            int m = 0;
+            boolean dropped = false;
+            for (int i = 0; i < n; i++) {
+                boolean tree = !dropped && ((from[i] == parent[v] && to[i] == v) || (from[i] == v && to[i] == parent[v])) && w[i] == weight[v];
+                if (tree) {
+                    dropped = true;
+                    continue;
+                }
+                f[m] = from[i];
+                t[m] = to[i];
+                ww[m++] = w[i];
+            }
+            int[] p2 = new int[V], w2 = new int[V];
+            PrimMST.primTree(PrimMST.CSRGraph.fromUndirectedEdges(V, f, t, ww, m), p2, w2, 4);
+            long cost = 0;
+            for (int x = 1; x < V && cost != NONE; x++) cost = p2[x] < 0 ? NONE : cost + w2[x];
+            if (cost != s.costWithout(v)) mismatches++;
+            bestOther = Math.min(bestOther, cost);
+        }
+        System.out.printf("brute force over %d tree edges: %d mismatches; second-best agrees: %b%n",
+                V - 1, mismatches, bestOther == s.secondBestCost());
+    }
+}
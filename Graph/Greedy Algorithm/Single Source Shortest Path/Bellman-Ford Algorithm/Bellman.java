@@ -1,3 +1,4 @@
+import java.io.*;
 import java.util.*;
 
 public class Bellman {
@@ -52,8 +53,137 @@ public class Bellman {
         }
     }
 
-    public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+    // Same passes as bellmanFord, but stops after the first pass that relaxes
+    // nothing. A relaxation in pass v means a negative cycle.
+    // Fills dist and returns null, or returns the vertices of a negative cycle.
+    int[] bellmanFordEarlyExit(int src, int[] dist) {
+        int[] parent = new int[v + 1];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        dist[src] = 0;
+
+        for (int i = 1; i <= v; i++) {
+            int changed = -1;
+            for (Edge edge : edgeList) {
+                if (dist[edge.u] != Integer.MAX_VALUE &&
+                    dist[edge.u] + edge.w < dist[edge.v]) {
+                    dist[edge.v] = dist[edge.u] + edge.w;
+                    parent[edge.v] = edge.u;
+                    changed = edge.v;
+                }
+            }
+            if (changed == -1) break;
+            if (i == v) return cycleFrom(changed, parent); // still relaxing after v - 1 passes
+        }
+        return null;
+    }
+
+    void bellmanFordEarlyExit(int src) {
+        int[] dist = new int[v + 1];
+        int[] cycle = bellmanFordEarlyExit(src, dist);
+        if (cycle != null) printNegativeCycle(cycle);
+        else printDistances(src, dist);
+    }
+
+    // Queue-based Bellman-Ford (SPFA): only vertices whose distance changed are
+    // rescanned. With smallLabelFirst a vertex whose label beats the queue front
+    // jumps ahead (SLF). count[x] is the number of edges on x's current path, so
+    // reaching v edges proves a negative cycle.
+    // Fills dist and returns null, or returns the vertices of a negative cycle.
+    int[] spfa(int src, boolean smallLabelFirst, int[] dist) {
+        int n = v + 1;
+        int[] offsets = new int[n + 1], to = new int[edgeList.size()], w = new int[edgeList.size()];
+        for (Edge edge : edgeList) offsets[edge.u + 1]++;
+        for (int i = 0; i < n; i++) offsets[i + 1] += offsets[i];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (Edge edge : edgeList) {
+            int slot = next[edge.u]++;
+            to[slot] = edge.v;
+            w[slot] = edge.w;
+        }
+
+        int[] parent = new int[n], count = new int[n];
+        boolean[] inQueue = new boolean[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        dist[src] = 0;
+
+        int[] deque = new int[n]; // circular; each vertex is queued at most once
+        int head = 0, size = 1;
+        deque[0] = src;
+        inQueue[src] = true;
+
+        while (size > 0) {
+            int x = deque[head];
+            head = (head + 1) % n;
+            size--;
+            inQueue[x] = false;
+
+            for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                int y = to[e];
+                if (dist[x] + w[e] >= dist[y]) continue;
+                dist[y] = dist[x] + w[e];
+                parent[y] = x;
+                count[y] = count[x] + 1;
+                if (count[y] >= v) return cycleFrom(y, parent);
+                if (inQueue[y]) continue;
+
+                inQueue[y] = true;
+                if (smallLabelFirst && size > 0 && dist[y] < dist[deque[head]]) {
+                    head = (head - 1 + n) % n;
+                    deque[head] = y;
+                } else {
+                    deque[(head + size) % n] = y;
+                }
+                size++;
+            }
+        }
+        return null;
+    }
+
+    void spfa(int src, boolean smallLabelFirst) {
+        int[] dist = new int[v + 1];
+        int[] cycle = spfa(src, smallLabelFirst, dist);
+        if (cycle != null) printNegativeCycle(cycle);
+        else printDistances(src, dist);
+    }
+
+    // x was relaxed by a path with at least v edges, so following parents v
+    // times lands on a cycle; the walk then goes around it once.
+    int[] cycleFrom(int x, int[] parent) {
+        for (int i = 0; i < v; i++) x = parent[x];
+        List<Integer> cycle = new ArrayList<>();
+        int y = x;
+        do {
+            cycle.add(y);
+            y = parent[y];
+        } while (y != x);
+        Collections.reverse(cycle);
+
+        int[] result = new int[cycle.size()];
+        for (int i = 0; i < result.length; i++) result[i] = cycle.get(i);
+        return result;
+    }
+
+    void printNegativeCycle(int[] cycle) {
+        System.out.println("Negative weight cycle");
+        StringBuilder sb = new StringBuilder("Cycle:");
+        for (int x : cycle) sb.append(' ').append(x);
+        sb.append(' ').append(cycle[0]);
+        System.out.println(sb);
+    }
+
+    void printDistances(int src, int[] dist) {
+        for (int i = 1; i <= v; i++) {
+            System.out.println("Distance from " + src + " to " + i + ": " +
+                    (dist[i] == Integer.MAX_VALUE ? "INF" : dist[i]));
+        }
+    }
+
+    // java Bellman [classic | early | spfa | slf] [edges.txt [threads]]
+    // Without a file the graph is read from stdin.
+    public static void main(String[] args) throws IOException {
+        EdgeListParser.IntSource sc = EdgeListParser.open(args, 1);
 
         int c = sc.nextInt(); //vertices
         int r = sc.nextInt(); //edges
@@ -67,7 +197,14 @@ public class Bellman {
             g.addEdge(u, v, w);
         }
 
-        int src = sc.nextInt(); 
-        g.bellmanFord(src);
+        int src = sc.hasNext() ? sc.nextInt() : 1; // a graph file has no source line
+
+        String mode = args.length > 0 ? args[0] : "classic";
+        switch (mode) {
+            case "early": g.bellmanFordEarlyExit(src); break;
+            case "spfa":  g.spfa(src, false); break;
+            case "slf":   g.spfa(src, true); break;
+            default:      g.bellmanFord(src);
+        }
     }
 }
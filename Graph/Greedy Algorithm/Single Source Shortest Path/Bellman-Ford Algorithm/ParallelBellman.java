@@ -0,0 +1,141 @@
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+// Bellman-Ford over a struct-of-arrays edge list (int[] u, v, w), relaxing edge
+// chunks in parallel on a ForkJoinPool. Threads lower dist[] with a CAS-min, so
+// a round can use values written earlier in the same round. Every round does at
+// least as much as a textbook pass, so v - 1 rounds still suffice. The loop stops
+// after the first round that changes nothing. If round v - 1 still changed
+// something, a read-only pass checks for a negative cycle, exactly like
+// Bellman.bellmanFord, and the output is printed in the same format.
+public class ParallelBellman {
+    private static final VarHandle DIST = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int CHUNK = 1 << 14; // edges per task
+
+    final int v; // vertices are 1..v, as in Bellman
+    int[] eu = new int[16], ev = new int[16], ew = new int[16];
+    int m;
+
+    ParallelBellman(int v) {
+        this.v = v;
+    }
+
+    void addDirectedEdge(int u, int x, int w) {
+        if (m == eu.length) {
+            eu = Arrays.copyOf(eu, 2 * m);
+            ev = Arrays.copyOf(ev, 2 * m);
+            ew = Arrays.copyOf(ew, 2 * m);
+        }
+        eu[m] = u;
+        ev[m] = x;
+        ew[m++] = w;
+    }
+
+    void addEdge(int u, int x, int w) {
+        addDirectedEdge(u, x, w);
+        addDirectedEdge(x, u, w); // For undirected graph, as in Bellman
+    }
+
+    // Returns dist, or null if a negative cycle is reachable from src.
+    int[] shortestPaths(int src, ForkJoinPool pool) {
+        int[] dist = new int[v + 1];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[src] = 0;
+        int chunks = (m + CHUNK - 1) / CHUNK;
+
+        for (int round = 1; round < v; round++) {
+            boolean changed = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .map(c -> relaxChunk(c, dist) ? 1 : 0).sum() > 0).join();
+            if (!changed) return dist;
+        }
+
+        boolean relaxable = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .anyMatch(c -> canRelax(c, dist))).join();
+        return relaxable ? null : dist;
+    }
+
+    private boolean relaxChunk(int c, int[] dist) {
+        boolean changed = false;
+        for (int i = c * CHUNK, end = Math.min(m, i + CHUNK); i < end; i++) {
+            int du = (int) DIST.getVolatile(dist, eu[i]);
+            if (du == Integer.MAX_VALUE) continue;
+            int nd = du + ew[i];
+            int cur;
+            while (nd < (cur = (int) DIST.getVolatile(dist, ev[i]))) {
+                if (DIST.compareAndSet(dist, ev[i], cur, nd)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean canRelax(int c, int[] dist) {
+        for (int i = c * CHUNK, end = Math.min(m, i + CHUNK); i < end; i++) {
+            if (dist[eu[i]] != Integer.MAX_VALUE && dist[eu[i]] + ew[i] < dist[ev[i]]) return true;
+        }
+        return false;
+    }
+
+    void bellmanFord(int src, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int[] dist = shortestPaths(src, pool);
+            if (dist == null) {
+                System.out.println("Negative weight cycle");
+                return;
+            }
+            for (int i = 1; i <= v; i++) {
+                System.out.println("Distance from " + src + " to " + i + ": " +
+                        (dist[i] == Integer.MAX_VALUE ? "INF" : dist[i]));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // java ParallelBellman [threads [edges.txt [parse threads]]] -> Bellman's input format, stdin without a file
+    // java ParallelBellman --bench V E [threads] -> random directed graph, timed per thread count
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--bench")) {
+            bench(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors());
+            return;
+        }
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        EdgeListParser.IntSource sc = EdgeListParser.open(args, 1);
+
+        int c = sc.nextInt(); //vertices
+        int r = sc.nextInt(); //edges
+        ParallelBellman g = new ParallelBellman(c);
+        for (int i = 0; i < r; i++) {
+            g.addEdge(sc.nextInt(), sc.nextInt(), sc.nextInt());
+        }
+        g.bellmanFord(sc.hasNext() ? sc.nextInt() : 1, threads); // a graph file has no source line
+    }
+
+    private static void bench(int V, int E, int maxThreads) {
+        // w = base + p[u] - p[x] gives negative edges but no negative cycle.
+        Random rnd = new Random(17);
+        int[] p = new int[V + 1];
+        for (int i = 1; i <= V; i++) p[i] = rnd.nextInt(1000);
+        ParallelBellman g = new ParallelBellman(V);
+        for (int i = 0; i < E; i++) {
+            int u = 1 + rnd.nextInt(V), x = 1 + rnd.nextInt(V);
+            g.addDirectedEdge(u, x, rnd.nextInt(100) + p[u] - p[x]);
+        }
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long t0 = System.nanoTime();
+            int[] dist = g.shortestPaths(1, pool);
+            System.out.printf("%2d threads: %8.1f ms (%s)%n", threads, (System.nanoTime() - t0) / 1e6,
+                    dist == null ? "negative cycle" : "converged");
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,401 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// ALT: A* search with Landmarks and the Triangle inequality.
+// For a landmark L, d(L, t) - d(L, v) and d(v, L) - d(t, L) are lower bounds on
+// d(v, t), so the best of them over k landmarks is an admissible A* potential.
+//
+// Tables are stored vertex-major (entry v * k + i), so computing the potential of
+// v reads k consecutive ints. As soon as selection fixes a landmark, its forward
+// and reverse Dijkstra are submitted to a pool of worker threads, so the 2k
+// table searches run concurrently with each other and with the rest of the
+// selection. The index can be saved and reloaded.
+public class ALTIndex {
+    static final int MAGIC = 0x31544C41; // "ALT1"
+    static final int INF = Integer.MAX_VALUE;
+
+    enum Selection { FARTHEST, AVOID }
+
+    final int V, k;
+    final int[] landmarks;
+    final int[] fromLandmark; // d(L_i, v) at v * k + i
+    final int[] toLandmark;   // d(v, L_i) at v * k + i
+
+    ALTIndex(int V, int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+        this.V = V;
+        this.k = landmarks.length;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    public static ALTIndex build(Dijkstra.CSRGraph g, int k, Selection selection, int threads) {
+        int V = g.V;
+        k = Math.min(k, V);
+        if (k <= 0) return new ALTIndex(V, new int[0], new int[0], new int[0]);
+        Tables t = new Tables(g, g.reverse(), k, tableSize(V, k));
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, 2 * k)));
+        try {
+            t.pool = pool;
+            if (selection == Selection.FARTHEST) selectFarthest(t);
+            else selectAvoid(t);
+            t.await();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int n = t.count;
+        if (n == k) return new ALTIndex(V, t.landmarks, t.from, t.to);
+        // Selection stopped early (e.g. a tiny or edgeless graph): repack with stride n.
+        int[] from = new int[V * n], to = new int[V * n];
+        for (int v = 0; v < V; v++) {
+            System.arraycopy(t.from, v * k, from, v * n, n);
+            System.arraycopy(t.to, v * k, to, v * n, n);
+        }
+        return new ALTIndex(V, Arrays.copyOf(t.landmarks, n), from, to);
+    }
+
+    // V * k as an array length; rejects indexes that do not fit in one int[].
+    static int tableSize(int V, int k) {
+        long size = (long) V * k;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(V + " vertices x " + k + " landmarks = " + size
+                    + " table entries; at most " + (Integer.MAX_VALUE - 8) + " fit in one array");
+        }
+        return (int) size;
+    }
+
+    // Distance tables filled while landmarks are being selected: add() hands
+    // the two searches from a new landmark to the pool and returns at once.
+    private static final class Tables {
+        final Dijkstra.CSRGraph g, reversed;
+        final int k;
+        final int[] landmarks, from, to;
+        final List<Future<?>> pending = new ArrayList<>();
+        ExecutorService pool;
+        int count;
+
+        Tables(Dijkstra.CSRGraph g, Dijkstra.CSRGraph reversed, int k, int size) {
+            this.g = g;
+            this.reversed = reversed;
+            this.k = k;
+            this.landmarks = new int[k];
+            this.from = new int[size];
+            this.to = new int[size];
+        }
+
+        void add(int landmark) {
+            int i = count++;
+            landmarks[i] = landmark;
+            pending.add(pool.submit(() -> fill(from, i, Dijkstra.dijkstra(g, landmark, Dijkstra.DEFAULT_ARITY))));
+            pending.add(pool.submit(() -> fill(to, i, Dijkstra.dijkstra(reversed, landmark, Dijkstra.DEFAULT_ARITY))));
+        }
+
+        // Column i of a vertex-major table.
+        private void fill(int[] table, int i, int[] d) {
+            for (int v = 0; v < d.length; v++) table[v * k + i] = d[v];
+        }
+
+        // Waits for every submitted search; the tables are complete afterwards.
+        void await() {
+            try {
+                for (Future<?> f : pending) f.get();
+                pending.clear();
+            } catch (InterruptedException | ExecutionException ex) {
+                throw new IllegalStateException("Landmark preprocessing failed", ex);
+            }
+        }
+    }
+
+    // Farthest-point selection: each new landmark is the vertex whose distance
+    // (in either direction) to the nearest landmark chosen so far is largest.
+    // nearestF/nearestB hold min over landmarks of d(L, v) and d(v, L). They
+    // are lowered by pruned searches, so selection never waits for the tables.
+    private static void selectFarthest(Tables t) {
+        int V = t.g.V;
+        int[] nearestF = new int[V], nearestB = new int[V];
+        Arrays.fill(nearestF, INF);
+        Arrays.fill(nearestB, INF);
+        IndexedDaryHeap heap = new IndexedDaryHeap(V, Dijkstra.DEFAULT_ARITY);
+        int seed = new Random(1).nextInt(V);
+        lowerBounds(t.g, seed, nearestF, heap);
+        lowerBounds(t.reversed, seed, nearestB, heap);
+        int next = farthest(nearestF, nearestB);
+        Arrays.fill(nearestF, INF); // the random seed is not a landmark
+        Arrays.fill(nearestB, INF);
+
+        while (t.count < t.k && next >= 0) {
+            t.add(next);
+            if (t.count == t.k) break;
+            lowerBounds(t.g, next, nearestF, heap);
+            lowerBounds(t.reversed, next, nearestB, heap);
+            next = farthest(nearestF, nearestB);
+        }
+    }
+
+    // Dijkstra from src that uses bound[] as its distance array: a vertex is
+    // only reached if src is closer to it than bound[v], and then bound[v] is
+    // lowered. A vertex that cannot be improved is not expanded, since by the
+    // triangle inequality nothing behind it can be improved through it.
+    private static void lowerBounds(Dijkstra.CSRGraph g, int src, int[] bound, IndexedDaryHeap heap) {
+        if (bound[src] == 0) return;
+        bound[src] = 0;
+        heap.pushOrDecrease(src, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            int du = bound[u];
+            for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                int v = g.targets[e];
+                int nd = du + g.weights[e];
+                if (nd < bound[v]) {
+                    bound[v] = nd;
+                    heap.pushOrDecrease(v, nd);
+                }
+            }
+        }
+    }
+
+    // Arg-max of min(nearestF[v], nearestB[v]) over reached vertices, or -1.
+    private static int farthest(int[] nearestF, int[] nearestB) {
+        int best = -1, bestDist = 0;
+        for (int v = 0; v < nearestF.length; v++) {
+            int dv = Math.min(nearestF[v], nearestB[v]);
+            if (dv != INF && dv > bestDist) {
+                best = v;
+                bestDist = dv;
+            }
+        }
+        return best;
+    }
+
+    // "Avoid" selection (Goldberg and Werneck): grow a shortest-path tree from a
+    // random root, weight each vertex by how badly the current landmarks bound
+    // d(root, v), and walk down the heaviest subtree that contains no landmark.
+    private static void selectAvoid(Tables t) {
+        int V = t.g.V, k = t.k;
+        Random rnd = new Random(1);
+        boolean[] isLandmark = new boolean[V];
+
+        for (int attempt = 0; t.count < k && attempt < 4 * k; attempt++) {
+            int root = rnd.nextInt(V);
+            int[] dist = new int[V], parent = new int[V];
+            int[] order = shortestPathTree(t.g, root, dist, parent);
+            t.await(); // the bounds below read the columns of every landmark so far
+
+            long[] size = new long[V];
+            boolean[] blocked = new boolean[V]; // subtree already contains a landmark
+            int rb = root * k;
+            for (int i = order.length - 1; i >= 0; i--) {
+                int v = order[i], vb = v * k;
+                long lower = 0;
+                for (int j = 0; j < t.count; j++) {
+                    int fr = t.from[rb + j], fv = t.from[vb + j], tr = t.to[rb + j], tv = t.to[vb + j];
+                    if (fr != INF && fv != INF) lower = Math.max(lower, (long) fv - fr);
+                    if (tv != INF && tr != INF) lower = Math.max(lower, (long) tr - tv);
+                }
+                if (isLandmark[v]) blocked[v] = true;
+                size[v] = blocked[v] ? 0 : size[v] + dist[v] - lower;
+                int p = parent[v];
+                if (p >= 0) {
+                    if (blocked[v]) blocked[p] = true;
+                    else size[p] += size[v];
+                }
+            }
+
+            // Start at the heaviest vertex and follow the heaviest child down to a leaf.
+            int[] heaviest = new int[V];
+            Arrays.fill(heaviest, -1);
+            int start = root;
+            for (int v : order) {
+                if (size[v] > size[start]) start = v;
+                int p = parent[v];
+                if (p >= 0 && !blocked[v] && (heaviest[p] < 0 || size[v] > size[heaviest[p]])) heaviest[p] = v;
+            }
+            if (size[start] == 0) continue;
+            int leaf = start;
+            while (heaviest[leaf] >= 0) leaf = heaviest[leaf];
+
+            isLandmark[leaf] = true;
+            t.add(leaf);
+        }
+    }
+
+    // Dijkstra that also records parents; returns the reached vertices in settle order.
+    private static int[] shortestPathTree(Dijkstra.CSRGraph g, int root, int[] dist, int[] parent) {
+        Arrays.fill(dist, INF);
+        Arrays.fill(parent, -1);
+        int[] order = new int[g.V];
+        int n = 0;
+        IndexedDaryHeap heap = new IndexedDaryHeap(g.V, Dijkstra.DEFAULT_ARITY);
+        dist[root] = 0;
+        heap.pushOrDecrease(root, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            order[n++] = u;
+            for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                int v = g.targets[e];
+                int nd = dist[u] + g.weights[e];
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    parent[v] = u;
+                    heap.pushOrDecrease(v, nd);
+                }
+            }
+        }
+        return Arrays.copyOf(order, n);
+    }
+
+    // Lower bound on d(v, t).
+    int potential(int v, int t) {
+        int best = 0;
+        int vb = v * k, tb = t * k;
+        for (int i = 0; i < k; i++) {
+            int lv = fromLandmark[vb + i], lt = fromLandmark[tb + i];
+            if (lv != INF && lt != INF && lt - lv > best) best = lt - lv;
+            int vl = toLandmark[vb + i], tl = toLandmark[tb + i];
+            if (vl != INF && tl != INF && vl - tl > best) best = vl - tl;
+        }
+        return best;
+    }
+
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(V);
+            out.writeInt(k);
+            for (int L : landmarks) out.writeInt(L);
+            for (int d : fromLandmark) out.writeInt(d);
+            for (int d : toLandmark) out.writeInt(d);
+        }
+    }
+
+    public static ALTIndex load(Path path, Dijkstra.CSRGraph g) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException(path + ": not a landmark index");
+            int V = in.readInt(), k = in.readInt();
+            if (V != g.V) throw new IOException(path + ": built for " + V + " vertices, graph has " + g.V);
+            int size;
+            try {
+                size = tableSize(V, k);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(path + ": " + ex.getMessage());
+            }
+            int[] landmarks = new int[k], from = new int[size], to = new int[size];
+            for (int i = 0; i < k; i++) landmarks[i] = in.readInt();
+            for (int i = 0; i < from.length; i++) from[i] = in.readInt();
+            for (int i = 0; i < to.length; i++) to[i] = in.readInt();
+            return new ALTIndex(V, landmarks, from, to);
+        }
+    }
+
+    // A* query engine over one index. Owns its buffers; use one per thread.
+    static final class Query {
+        private final Dijkstra.CSRGraph g;
+        private final ALTIndex index;
+        private final int[] dist, parent, touched;
+        private final IndexedDaryHeap heap;
+        private int touchedCount, lastDistance = INF, lastSettled;
+
+        Query(Dijkstra.CSRGraph g, ALTIndex index) {
+            this.g = g;
+            this.index = index;
+            dist = new int[g.V];
+            parent = new int[g.V];
+            touched = new int[g.V];
+            Arrays.fill(dist, INF);
+            heap = new IndexedDaryHeap(g.V, Dijkstra.DEFAULT_ARITY);
+        }
+
+        // Vertices of a shortest source -> target path, or an empty array if unreachable.
+        int[] shortestPath(int source, int target) {
+            for (int i = 0; i < touchedCount; i++) dist[touched[i]] = INF;
+            touchedCount = 0;
+            heap.clear();
+            lastSettled = 0;
+            lastDistance = INF;
+
+            dist[source] = 0;
+            parent[source] = -1;
+            touched[touchedCount++] = source;
+            heap.pushOrDecrease(source, index.potential(source, target));
+
+            // Keys are dist + potential. A vertex may be reopened if the bounds are not
+            // consistent, and the target's first settle is final because they are admissible.
+            while (!heap.isEmpty()) {
+                int u = heap.pollMin();
+                lastSettled++;
+                if (u == target) break;
+                int du = dist[u];
+                for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                    int v = g.targets[e];
+                    int nd = du + g.weights[e];
+                    if (nd < dist[v]) {
+                        if (dist[v] == INF) touched[touchedCount++] = v;
+                        dist[v] = nd;
+                        parent[v] = u;
+                        heap.pushOrDecrease(v, nd + index.potential(v, target));
+                    }
+                }
+            }
+            if (dist[target] == INF) return new int[0];
+            lastDistance = dist[target];
+
+            int n = 0;
+            for (int v = target; v != -1; v = parent[v]) n++;
+            int[] path = new int[n];
+            for (int v = target; v != -1; v = parent[v]) path[--n] = v;
+            return path;
+        }
+
+        int lastDistance() {
+            return lastDistance;
+        }
+
+        int lastSettledCount() {
+            return lastSettled;
+        }
+    }
+
+    // Builds (or loads) an index and compares A* against bidirectional Dijkstra:
+    //   java ALTIndex [V] [E] [k] [farthest|avoid] [index.alt]
+    public static void main(String[] args) throws IOException {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        Selection sel = args.length > 3 && args[3].equalsIgnoreCase("avoid") ? Selection.AVOID : Selection.FARTHEST;
+        Path file = args.length > 4 ? Paths.get(args[4]) : null;
+
+        Random rnd = new Random(7);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(600));
+        Dijkstra.CSRGraph g = builder.build();
+
+        long t0 = System.nanoTime();
+        ALTIndex index;
+        if (file != null && Files.exists(file)) {
+            index = load(file, g);
+            System.out.printf("Loaded %d landmarks in %.1f ms%n", index.k, (System.nanoTime() - t0) / 1e6);
+        } else {
+            index = build(g, k, sel, Runtime.getRuntime().availableProcessors());
+            System.out.printf("Selected %d landmarks (%s) in %.1f ms%n", index.k, sel, (System.nanoTime() - t0) / 1e6);
+            if (file != null) index.save(file);
+        }
+
+        Query alt = new Query(g, index);
+        BidirectionalDijkstra bd = new BidirectionalDijkstra(g);
+        long altSettled = 0, bdSettled = 0;
+        int queries = 200, mismatches = 0;
+        for (int q = 0; q < queries; q++) {
+            int s = rnd.nextInt(V), t = rnd.nextInt(V);
+            alt.shortestPath(s, t);
+            bd.shortestPath(s, t);
+            altSettled += alt.lastSettledCount();
+            bdSettled += bd.lastSettledCount();
+            if (alt.lastDistance() != bd.lastDistance()) mismatches++;
+        }
+        System.out.printf("Average settled: ALT %.0f, bidirectional Dijkstra %.0f; mismatches: %d%n",
+                (double) altSettled / queries, (double) bdSettled / queries, mismatches);
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Distances from many sources over one graph, spread across a worker pool.
+// Each worker owns one dist buffer and one indexed heap and reuses them for
+// every source it takes, so a batch allocates O(threads * V) in total instead
+// of a dist array and a PriorityQueue per source. Workers pull the next source
+// index from a shared counter, so uneven searches balance themselves.
+public class BatchDijkstra {
+
+    // Receives one finished row. dist is the worker's buffer and is overwritten
+    // after accept returns, so copy what you need to keep. Called concurrently
+    // from several workers.
+    interface DistanceSink {
+        void accept(int index, int source, int[] dist);
+    }
+
+    public static void run(Dijkstra.CSRGraph g, int[] sources, int threads, DistanceSink sink) {
+        runWorkers(g, sources, threads, (index, dist, heap) -> {
+            Dijkstra.dijkstra(g, sources[index], dist, heap);
+            sink.accept(index, sources[index], dist);
+        }, true);
+    }
+
+    // Writes row i of the caller's matrix for sources[i]; rows are used directly
+    // as the search buffers, so nothing is copied.
+    public static void run(Dijkstra.CSRGraph g, int[] sources, int threads, int[][] matrix) {
+        if (matrix.length < sources.length) throw new IllegalArgumentException("matrix has fewer rows than sources");
+        runWorkers(g, sources, threads, (index, dist, heap) ->
+                Dijkstra.dijkstra(g, sources[index], matrix[index], heap), false);
+    }
+
+    private interface Job {
+        void run(int index, int[] dist, IndexedDaryHeap heap);
+    }
+
+    private static void runWorkers(Dijkstra.CSRGraph g, int[] sources, int threads, Job job, boolean needsDist) {
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.max(1, Math.min(threads, sources.length));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < workers; t++) {
+                futures.add(pool.submit(() -> {
+                    int[] dist = needsDist ? new int[g.V] : null;
+                    IndexedDaryHeap heap = new IndexedDaryHeap(g.V, Dijkstra.DEFAULT_ARITY);
+                    for (int i; (i = next.getAndIncrement()) < sources.length; ) job.run(i, dist, heap);
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Batch query failed", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Times a batch against calling Dijkstra once per source:
+    //   java BatchDijkstra [V] [E] [sources] [threads]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int n = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        Random rnd = new Random(3);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(600));
+        Dijkstra.CSRGraph g = builder.build();
+        int[] sources = new int[n];
+        for (int i = 0; i < n; i++) sources[i] = rnd.nextInt(V);
+
+        long t0 = System.nanoTime();
+        long[] checksum = new long[n];
+        for (int i = 0; i < n; i++) checksum[i] = sum(Dijkstra.dijkstra(g, sources[i]));
+        long t1 = System.nanoTime();
+
+        long[] batched = new long[n];
+        run(g, sources, threads, (index, source, dist) -> batched[index] = sum(dist));
+        long t2 = System.nanoTime();
+
+        System.out.printf("%d sources: one call each %.1f ms, batch on %d threads %.1f ms, same result: %b%n",
+                n, (t1 - t0) / 1e6, threads, (t2 - t1) / 1e6, Arrays.equals(checksum, batched));
+    }
+
+    private static long sum(int[] dist) {
+        long s = 0;
+        for (int d : dist) if (d != Integer.MAX_VALUE) s += d;
+        return s;
+    }
+}
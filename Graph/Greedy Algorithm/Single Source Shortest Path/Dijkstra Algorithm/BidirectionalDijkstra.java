@@ -0,0 +1,159 @@
+import java.util.*;
+
+// Point-to-point shortest paths with bidirectional Dijkstra.
+// A forward search from the source on the graph and a backward search from the
+// target on the reversed graph run alternately. mu is the best s-t path seen
+// where the two searches touch; once minF + minB >= mu no shorter path exists.
+//
+// One instance owns all per-query buffers and only resets the entries a query
+// touched, so a query costs time proportional to the explored region, not V.
+// Not thread-safe: use one instance per thread.
+public class BidirectionalDijkstra {
+    private final Dijkstra.CSRGraph forward, backward;
+    private final int[] distF, distB, parentF, parentB;
+    private final IndexedDaryHeap heapF, heapB;
+    private final int[] touched;
+    private int touchedCount;
+    private int lastDistance = Integer.MAX_VALUE;
+    private int lastSettled;
+
+    public BidirectionalDijkstra(Dijkstra.CSRGraph g) {
+        this(g, g.reverse());
+    }
+
+    public BidirectionalDijkstra(Dijkstra.CSRGraph g, Dijkstra.CSRGraph reversed) {
+        forward = g;
+        backward = reversed;
+        int V = g.V;
+        distF = new int[V];
+        distB = new int[V];
+        parentF = new int[V];
+        parentB = new int[V];
+        Arrays.fill(distF, Integer.MAX_VALUE);
+        Arrays.fill(distB, Integer.MAX_VALUE);
+        heapF = new IndexedDaryHeap(V, Dijkstra.DEFAULT_ARITY);
+        heapB = new IndexedDaryHeap(V, Dijkstra.DEFAULT_ARITY);
+        touched = new int[V];
+    }
+
+    // Vertices of a shortest source -> target path, or an empty array if target is unreachable.
+    public int[] shortestPath(int source, int target) {
+        reset();
+        lastSettled = 0;
+        touch(source);
+        if (target != source) touch(target); // touched[] has room for each vertex once
+        distF[source] = 0;
+        parentF[source] = -1;
+        distB[target] = 0;
+        parentB[target] = -1;
+        heapF.pushOrDecrease(source, 0);
+        heapB.pushOrDecrease(target, 0);
+
+        long mu = source == target ? 0 : Long.MAX_VALUE;
+        int meet = source == target ? source : -1;
+
+        while (!heapF.isEmpty() && !heapB.isEmpty()
+                && (long) heapF.minKey() + heapB.minKey() < mu) {
+            boolean goForward = heapF.size() <= heapB.size();
+            IndexedDaryHeap heap = goForward ? heapF : heapB;
+            Dijkstra.CSRGraph g = goForward ? forward : backward;
+            int[] dist = goForward ? distF : distB, other = goForward ? distB : distF;
+            int[] parent = goForward ? parentF : parentB;
+
+            int u = heap.pollMin();
+            lastSettled++;
+            int du = dist[u];
+            for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                int v = g.targets[e];
+                int nd = du + g.weights[e];
+                if (nd < dist[v]) {
+                    if (distF[v] == Integer.MAX_VALUE && distB[v] == Integer.MAX_VALUE) touch(v);
+                    dist[v] = nd;
+                    parent[v] = u;
+                    heap.pushOrDecrease(v, nd);
+                }
+                if (other[v] != Integer.MAX_VALUE && (long) dist[v] + other[v] < mu) {
+                    mu = (long) dist[v] + other[v];
+                    meet = v;
+                }
+            }
+        }
+
+        if (meet < 0) {
+            lastDistance = Integer.MAX_VALUE;
+            return new int[0];
+        }
+        lastDistance = (int) mu;
+
+        int n = 0;
+        for (int v = meet; v != -1; v = parentF[v]) n++;
+        for (int v = parentB[meet]; v != -1; v = parentB[v]) n++;
+        int[] path = new int[n];
+        int i = 0;
+        for (int v = meet; v != -1; v = parentF[v]) path[i++] = v;
+        for (int a = 0, b = i - 1; a < b; a++, b--) {
+            int t = path[a];
+            path[a] = path[b];
+            path[b] = t;
+        }
+        for (int v = parentB[meet]; v != -1; v = parentB[v]) path[i++] = v;
+        return path;
+    }
+
+    // Length of the path returned by the last shortestPath call (Integer.MAX_VALUE if none).
+    public int lastDistance() {
+        return lastDistance;
+    }
+
+    // Vertices settled by both searches during the last query.
+    public int lastSettledCount() {
+        return lastSettled;
+    }
+
+    private void touch(int v) {
+        touched[touchedCount++] = v;
+    }
+
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distF[v] = distB[v] = Integer.MAX_VALUE;
+        }
+        touchedCount = 0;
+        heapF.clear();
+        heapB.clear();
+    }
+
+    // Random queries checked against one-directional Dijkstra:
+    //   java BidirectionalDijkstra [V] [E] [queries]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+        Random rnd = new Random(7);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(600));
+        Dijkstra.CSRGraph g = builder.build();
+        BidirectionalDijkstra bd = new BidirectionalDijkstra(g);
+
+        long settled = 0, biNanos = 0, uniNanos = 0;
+        int mismatches = 0;
+        for (int q = 0; q < queries; q++) {
+            int s = rnd.nextInt(V), t = rnd.nextInt(V);
+            long t0 = System.nanoTime();
+            int[] path = bd.shortestPath(s, t);
+            long t1 = System.nanoTime();
+            int[] dist = Dijkstra.dijkstra(g, s, Dijkstra.DEFAULT_ARITY);
+            long t2 = System.nanoTime();
+            biNanos += t1 - t0;
+            uniNanos += t2 - t1;
+            settled += bd.lastSettledCount();
+            if (dist[t] != bd.lastDistance() || (path.length == 0) != (dist[t] == Integer.MAX_VALUE)) mismatches++;
+        }
+        System.out.printf("%d queries: bidirectional %.2f ms/query, full Dijkstra %.2f ms/query, "
+                        + "%.1f%% of vertices settled on average, mismatches: %d%n",
+                queries, biNanos / 1e6 / queries, uniNanos / 1e6 / queries,
+                100.0 * settled / queries / V, mismatches);
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.*;
+
+// Dijkstra with integer-keyed monotone queues instead of a comparison heap.
+// Both need non-negative integer weights; keys popped never decrease.
+//
+// Dial:       C + 1 circular buckets (C = max edge weight). Every queued key lies in
+//             [d, d + C], so bucket d % (C + 1) only holds vertices at distance d.
+//             O(E + V * C) worst case, O(E + maxDistance) in practice.
+// Radix heap: 33 buckets by the highest bit in which a key differs from the last
+//             popped key. O(E + V log C).
+public class BucketDijkstra {
+
+    public static int[] dial(Dijkstra.CSRGraph g, int source, int maxWeight) {
+        int V = g.V;
+        int nb = maxWeight + 1;
+        int[] dist = new int[V];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+
+        // Intrusive doubly-linked bucket lists, so a lowered key moves in O(1).
+        int[] head = new int[nb];
+        int[] next = new int[V], prev = new int[V];
+        Arrays.fill(head, -1);
+
+        dist[source] = 0;
+        head[0] = source;
+        next[source] = prev[source] = -1;
+        int queued = 1;
+
+        int[] offsets = g.offsets, targets = g.targets, weights = g.weights;
+        for (int d = 0; queued > 0; d++) {
+            int b = d % nb;
+            while (head[b] != -1) {
+                int u = head[b];
+                head[b] = next[u];
+                if (next[u] != -1) prev[next[u]] = -1;
+                queued--;
+
+                for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                    int v = targets[e];
+                    int nd = d + weights[e];
+                    if (nd < dist[v]) {
+                        if (dist[v] != Integer.MAX_VALUE) { // unlink from its old bucket
+                            int ob = dist[v] % nb;
+                            if (prev[v] != -1) next[prev[v]] = next[v];
+                            else head[ob] = next[v];
+                            if (next[v] != -1) prev[next[v]] = prev[v];
+                        } else {
+                            queued++;
+                        }
+                        dist[v] = nd;
+                        int nbk = nd % nb;
+                        prev[v] = -1;
+                        next[v] = head[nbk];
+                        if (head[nbk] != -1) prev[head[nbk]] = v;
+                        head[nbk] = v;
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+
+    public static int[] radix(Dijkstra.CSRGraph g, int source) {
+        int[] dist = new int[g.V];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+
+        RadixHeap heap = new RadixHeap();
+        heap.push(source, 0);
+
+        int[] offsets = g.offsets, targets = g.targets, weights = g.weights;
+        while (!heap.isEmpty()) {
+            int u = heap.pollVertex();
+            int du = heap.lastKey();
+            if (du > dist[u]) continue; // stale entry
+
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                int nd = du + weights[e];
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    heap.push(v, nd);
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Monotone radix heap. Bucket i > 0 holds keys whose highest bit differing
+    // from `last` is bit i - 1; bucket 0 holds keys equal to `last`.
+    static final class RadixHeap {
+        private final int[][] vertices = new int[33][];
+        private final int[][] keys = new int[33][];
+        private final int[] sizes = new int[33];
+        private int last, size;
+
+        RadixHeap() {
+            for (int i = 0; i < 33; i++) {
+                vertices[i] = new int[4];
+                keys[i] = new int[4];
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int lastKey() {
+            return last;
+        }
+
+        void push(int v, int key) {
+            add(bucket(key), v, key);
+            size++;
+        }
+
+        // Removes a vertex with the minimum key; the key is then lastKey().
+        int pollVertex() {
+            if (sizes[0] == 0) {
+                int i = 1;
+                while (sizes[i] == 0) i++;
+                int[] vs = vertices[i], ks = keys[i];
+                int n = sizes[i];
+                int min = ks[0];
+                for (int j = 1; j < n; j++) min = Math.min(min, ks[j]);
+                last = min;
+                sizes[i] = 0;
+                for (int j = 0; j < n; j++) add(bucket(ks[j]), vs[j], ks[j]);
+            }
+            size--;
+            return vertices[0][--sizes[0]];
+        }
+
+        private int bucket(int key) {
+            return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+        }
+
+        private void add(int b, int v, int key) {
+            int n = sizes[b];
+            if (n == vertices[b].length) {
+                vertices[b] = Arrays.copyOf(vertices[b], 2 * n);
+                keys[b] = Arrays.copyOf(keys[b], 2 * n);
+            }
+            vertices[b][n] = v;
+            keys[b][n] = key;
+            sizes[b] = n + 1;
+        }
+    }
+
+    // Largest edge weight, or -1 if any weight is negative.
+    static int maxWeight(Dijkstra.CSRGraph g) {
+        int max = 0;
+        for (int i = 0, m = g.edgeCount(); i < m; i++) {
+            int w = g.weights[i];
+            if (w < 0) return -1;
+            if (w > max) max = w;
+        }
+        return max;
+    }
+
+    // Timing of every mode on a random graph with weights 1..C:
+    //   java BucketDijkstra [V] [E] [C]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 8_000_000;
+        int C = args.length > 2 ? Integer.parseInt(args[2]) : 600;
+
+        Random rnd = new Random(42);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(C));
+        Dijkstra.CSRGraph g = builder.build();
+
+        int[] expected = Dijkstra.dijkstra(g, 0, Dijkstra.Mode.BINARY_HEAP);
+        for (Dijkstra.Mode mode : Dijkstra.Mode.values()) {
+            long t0 = System.nanoTime();
+            int[] dist = Dijkstra.dijkstra(g, 0, mode);
+            System.out.printf("%-12s %8.1f ms   same result: %b%n",
+                    mode, (System.nanoTime() - t0) / 1e6, Arrays.equals(expected, dist));
+        }
+    }
+}
@@ -0,0 +1,330 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Contraction Hierarchies (Geisberger et al.) over Dijkstra.CSRGraph.
+//
+// Preprocessing contracts vertices one at a time in order of importance. When v
+// is removed, each pair of neighbours u -> v -> w whose only shortest path runs
+// through v gets a shortcut u -> w. A bounded local Dijkstra (the witness
+// search) decides that. Importance is the edge difference (shortcuts added
+// minus edges removed) plus the number of contracted neighbours. Priorities are
+// updated lazily: a popped vertex is re-evaluated and re-queued if it got worse.
+//
+// A query runs Dijkstra upward from s on the upward graph and upward from t on
+// the reversed downward graph. The answer is the minimum dist_up(v) + dist_down(v).
+public class ContractionHierarchy {
+    static final int MAGIC = 0x31484348; // "HCH1"
+    static final int INF = Integer.MAX_VALUE;
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    final int V;
+    final int[] rank;           // contraction order position of every vertex
+    final Dijkstra.CSRGraph up;   // u -> v with rank[v] > rank[u]
+    final Dijkstra.CSRGraph down; // reversed: v -> u for every u -> v with rank[u] > rank[v]
+
+    ContractionHierarchy(int[] rank, Dijkstra.CSRGraph up, Dijkstra.CSRGraph down) {
+        this.V = rank.length;
+        this.rank = rank;
+        this.up = up;
+        this.down = down;
+    }
+
+    // Growable per-vertex edge list used while contracting.
+    private static final class EdgeList {
+        int[] to = new int[4], w = new int[4];
+        int size;
+
+        // Adds u -> to, or lowers its weight if the edge already exists.
+        void addOrLower(int v, int weight) {
+            for (int i = 0; i < size; i++) {
+                if (to[i] == v) {
+                    if (weight < w[i]) w[i] = weight;
+                    return;
+                }
+            }
+            if (size == to.length) {
+                to = Arrays.copyOf(to, 2 * size);
+                w = Arrays.copyOf(w, 2 * size);
+            }
+            to[size] = v;
+            w[size++] = weight;
+        }
+    }
+
+    public static ContractionHierarchy build(Dijkstra.CSRGraph g) {
+        int V = g.V;
+        EdgeList[] out = new EdgeList[V], in = new EdgeList[V];
+        for (int v = 0; v < V; v++) {
+            out[v] = new EdgeList();
+            in[v] = new EdgeList();
+        }
+        for (int u = 0; u < V; u++) {
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e];
+                if (v == u) continue;
+                out[u].addOrLower(v, g.weights[e]);
+                in[v].addOrLower(u, g.weights[e]);
+            }
+        }
+
+        Witness witness = new Witness(V);
+        boolean[] contracted = new boolean[V];
+        int[] deleted = new int[V]; // contracted neighbours, for the priority term
+        int[] rank = new int[V];
+        IndexedDaryHeap queue = new IndexedDaryHeap(V, Dijkstra.DEFAULT_ARITY);
+        for (int v = 0; v < V; v++) {
+            queue.pushOrDecrease(v, priority(v, out, in, contracted, deleted, witness, false));
+        }
+
+        for (int next = 0; !queue.isEmpty(); ) {
+            int v = queue.pollMin();
+            int p = priority(v, out, in, contracted, deleted, witness, false);
+            if (!queue.isEmpty() && p > queue.minKey()) { // lazy update
+                queue.pushOrDecrease(v, p);
+                continue;
+            }
+            priority(v, out, in, contracted, deleted, witness, true);
+            contracted[v] = true;
+            rank[v] = next++;
+            for (int i = 0; i < out[v].size; i++) deleted[out[v].to[i]]++;
+            for (int i = 0; i < in[v].size; i++) deleted[in[v].to[i]]++;
+        }
+
+        // Every edge (original or shortcut) goes into the upward graph if it
+        // climbs in rank, otherwise reversed into the downward graph.
+        Dijkstra.CSRGraph.Builder upB = new Dijkstra.CSRGraph.Builder(V), downB = new Dijkstra.CSRGraph.Builder(V);
+        for (int u = 0; u < V; u++) {
+            for (int i = 0; i < out[u].size; i++) {
+                int v = out[u].to[i], w = out[u].w[i];
+                if (rank[v] > rank[u]) upB.addEdge(u, v, w);
+                else downB.addEdge(v, u, w);
+            }
+        }
+        return new ContractionHierarchy(rank, upB.build(), downB.build());
+    }
+
+    // Edge difference plus contracted neighbours. With contract = true the
+    // shortcuts are also inserted into out/in.
+    private static int priority(int v, EdgeList[] out, EdgeList[] in, boolean[] contracted,
+                                int[] deleted, Witness witness, boolean contract) {
+        int shortcuts = 0, removed = 0;
+        EdgeList ov = out[v], iv = in[v];
+        for (int i = 0; i < ov.size; i++) if (!contracted[ov.to[i]]) removed++;
+        for (int a = 0; a < iv.size; a++) {
+            int u = iv.to[a];
+            if (contracted[u]) continue;
+            removed++;
+            int maxVia = 0;
+            for (int b = 0; b < ov.size; b++) {
+                if (!contracted[ov.to[b]]) maxVia = Math.max(maxVia, iv.w[a] + ov.w[b]);
+            }
+            witness.run(u, v, maxVia, out, contracted);
+            for (int b = 0; b < ov.size; b++) {
+                int x = ov.to[b];
+                if (contracted[x] || x == u) continue;
+                int via = iv.w[a] + ov.w[b];
+                if (witness.dist(x) <= via) continue;
+                shortcuts++;
+                if (contract) {
+                    out[u].addOrLower(x, via);
+                    in[x].addOrLower(u, via);
+                }
+            }
+        }
+        return shortcuts - removed + deleted[v];
+    }
+
+    // Local Dijkstra from u that ignores the vertex being contracted, bounded by
+    // a distance limit and a settle count. Reuses its buffers between runs.
+    private static final class Witness {
+        final int[] dist, touched;
+        final IndexedDaryHeap heap;
+        int touchedCount;
+
+        Witness(int V) {
+            dist = new int[V];
+            touched = new int[V];
+            Arrays.fill(dist, INF);
+            heap = new IndexedDaryHeap(V, Dijkstra.DEFAULT_ARITY);
+        }
+
+        int dist(int v) {
+            return dist[v];
+        }
+
+        void run(int source, int skip, int limit, EdgeList[] out, boolean[] contracted) {
+            for (int i = 0; i < touchedCount; i++) dist[touched[i]] = INF;
+            touchedCount = 0;
+            heap.clear();
+            dist[source] = 0;
+            touched[touchedCount++] = source;
+            heap.pushOrDecrease(source, 0);
+
+            for (int settled = 0; !heap.isEmpty() && settled < WITNESS_SETTLE_LIMIT; settled++) {
+                int u = heap.pollMin();
+                if (dist[u] > limit) break;
+                EdgeList ou = out[u];
+                for (int i = 0; i < ou.size; i++) {
+                    int x = ou.to[i];
+                    if (x == skip || contracted[x]) continue;
+                    int nd = dist[u] + ou.w[i];
+                    if (nd < dist[x]) {
+                        if (dist[x] == INF) touched[touchedCount++] = x;
+                        dist[x] = nd;
+                        heap.pushOrDecrease(x, nd);
+                    }
+                }
+            }
+        }
+    }
+
+    // Upward-only bidirectional query. Owns its buffers; use one per thread.
+    static final class Query {
+        private final ContractionHierarchy ch;
+        private final int[] distUp, distDown, touched;
+        private final IndexedDaryHeap heapUp, heapDown;
+        private int touchedCount;
+
+        Query(ContractionHierarchy ch) {
+            this.ch = ch;
+            distUp = new int[ch.V];
+            distDown = new int[ch.V];
+            touched = new int[2 * ch.V];
+            Arrays.fill(distUp, INF);
+            Arrays.fill(distDown, INF);
+            heapUp = new IndexedDaryHeap(ch.V, Dijkstra.DEFAULT_ARITY);
+            heapDown = new IndexedDaryHeap(ch.V, Dijkstra.DEFAULT_ARITY);
+        }
+
+        // Shortest-path distance, or Integer.MAX_VALUE if t is unreachable.
+        int distance(int s, int t) {
+            for (int i = 0; i < touchedCount; i++) distUp[touched[i]] = distDown[touched[i]] = INF;
+            touchedCount = 0;
+            heapUp.clear();
+            heapDown.clear();
+
+            distUp[s] = 0;
+            distDown[t] = 0;
+            touched[touchedCount++] = s;
+            touched[touchedCount++] = t;
+            heapUp.pushOrDecrease(s, 0);
+            heapDown.pushOrDecrease(t, 0);
+
+            long best = s == t ? 0 : Long.MAX_VALUE;
+            while (!heapUp.isEmpty() || !heapDown.isEmpty()) {
+                boolean upward = heapDown.isEmpty() || (!heapUp.isEmpty() && heapUp.minKey() <= heapDown.minKey());
+                IndexedDaryHeap heap = upward ? heapUp : heapDown;
+                if (heap.minKey() >= best) { // this side cannot improve the answer any more
+                    heap.clear();
+                    continue;
+                }
+                int[] dist = upward ? distUp : distDown, other = upward ? distDown : distUp;
+                Dijkstra.CSRGraph g = upward ? ch.up : ch.down;
+
+                int u = heap.pollMin();
+                if (other[u] != INF) best = Math.min(best, (long) dist[u] + other[u]);
+                for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                    int v = g.targets[e];
+                    int nd = dist[u] + g.weights[e];
+                    if (nd < dist[v]) {
+                        if (dist[v] == INF) touched[touchedCount++] = v;
+                        dist[v] = nd;
+                        heap.pushOrDecrease(v, nd);
+                    }
+                }
+            }
+            return best == Long.MAX_VALUE ? INF : (int) best;
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(V);
+            for (int r : rank) out.writeInt(r);
+            writeGraph(out, up);
+            writeGraph(out, down);
+        }
+    }
+
+    public static ContractionHierarchy load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException(path + ": not a contraction hierarchy");
+            int V = in.readInt();
+            int[] rank = new int[V];
+            for (int i = 0; i < V; i++) rank[i] = in.readInt();
+            Dijkstra.CSRGraph up = readGraph(in, V), down = readGraph(in, V);
+            return new ContractionHierarchy(rank, up, down);
+        }
+    }
+
+    private static void writeGraph(DataOutputStream out, Dijkstra.CSRGraph g) throws IOException {
+        out.writeInt(g.edgeCount());
+        for (int x : g.offsets) out.writeInt(x);
+        for (int i = 0; i < g.edgeCount(); i++) out.writeInt(g.targets[i]);
+        for (int i = 0; i < g.edgeCount(); i++) out.writeInt(g.weights[i]);
+    }
+
+    private static Dijkstra.CSRGraph readGraph(DataInputStream in, int V) throws IOException {
+        int E = in.readInt();
+        int[] offsets = new int[V + 1], targets = new int[E], weights = new int[E];
+        for (int i = 0; i <= V; i++) offsets[i] = in.readInt();
+        for (int i = 0; i < E; i++) targets[i] = in.readInt();
+        for (int i = 0; i < E; i++) weights[i] = in.readInt();
+        return new Dijkstra.CSRGraph(V, offsets, targets, weights);
+    }
+
+    // Builds a hierarchy for a grid road network with random travel times and
+    // checks queries against Dijkstra:
+    //   java ContractionHierarchy [side] [queries]
+    public static void main(String[] args) throws IOException {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int V = side * side;
+
+        Random rnd = new Random(11);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, 4 * V);
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side) {
+                    int w = 1 + rnd.nextInt(600);
+                    builder.addEdge(v, v + 1, w).addEdge(v + 1, v, w);
+                }
+                if (r + 1 < side) {
+                    int w = 1 + rnd.nextInt(600);
+                    builder.addEdge(v, v + side, w).addEdge(v + side, v, w);
+                }
+            }
+        }
+        Dijkstra.CSRGraph g = builder.build();
+
+        long t0 = System.nanoTime();
+        ContractionHierarchy ch = build(g);
+        System.out.printf("Contracted %d vertices in %.1f ms: %d upward + %d downward edges (input %d)%n",
+                V, (System.nanoTime() - t0) / 1e6, ch.up.edgeCount(), ch.down.edgeCount(), g.edgeCount());
+
+        Path file = Files.createTempFile("hierarchy", ".ch");
+        ch.save(file);
+        ch = load(file);
+        Files.delete(file);
+
+        Query query = new Query(ch);
+        int[] s = new int[queries], t = new int[queries], d = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            s[q] = rnd.nextInt(V);
+            t[q] = rnd.nextInt(V);
+        }
+        long t1 = System.nanoTime();
+        for (int q = 0; q < queries; q++) d[q] = query.distance(s[q], t[q]);
+        long t2 = System.nanoTime();
+
+        int mismatches = 0, checked = Math.min(queries, 50);
+        for (int q = 0; q < checked; q++) {
+            if (Dijkstra.dijkstra(g, s[q], Dijkstra.DEFAULT_ARITY)[t[q]] != d[q]) mismatches++;
+        }
+        System.out.printf("%d queries: %.1f us/query; %d checked against Dijkstra, mismatches: %d%n",
+                queries, (t2 - t1) / 1e3 / queries, checked, mismatches);
+    }
+}
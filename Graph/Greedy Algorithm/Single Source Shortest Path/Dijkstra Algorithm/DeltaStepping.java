@@ -0,0 +1,215 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Parallel single-source shortest paths by Delta-stepping (Meyer and Sanders).
+// Vertices sit in buckets of width delta by tentative distance. The lowest
+// non-empty bucket is settled in phases: relax the light edges (w <= delta) of
+// its vertices in parallel until it stops refilling, then relax the heavy edges
+// of everything it held once. Distances are lowered with a CAS-min on a shared
+// int[], so threads never lock. Needs non-negative weights; the result equals
+// Dijkstra's.
+public class DeltaStepping {
+    private static final VarHandle DIST = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int GRAIN = 256; // frontier vertices per task
+    static final int INF = Integer.MAX_VALUE;
+
+    private final Dijkstra.CSRGraph g;
+    private final int delta;
+    private final int[] offsets, lightEnd, targets, weights; // each vertex: light edges, then heavy
+    private final ForkJoinPool pool;
+
+    public DeltaStepping(Dijkstra.CSRGraph g, int delta, int threads) {
+        if (delta < 1) throw new IllegalArgumentException("delta must be positive, got " + delta);
+        this.g = g;
+        this.delta = delta;
+        this.pool = new ForkJoinPool(threads);
+
+        int V = g.V, E = g.edgeCount();
+        offsets = g.offsets;
+        lightEnd = new int[V];
+        targets = new int[E];
+        weights = new int[E];
+        for (int u = 0; u < V; u++) {
+            int lo = offsets[u], hi = offsets[u + 1], l = lo, h = hi;
+            for (int e = lo; e < hi; e++) {
+                int w = g.weights[e];
+                if (w < 0) throw new IllegalArgumentException("Negative edge weight " + w + " at vertex " + u);
+                int slot = w <= delta ? l++ : --h;
+                targets[slot] = g.targets[e];
+                weights[slot] = w;
+            }
+            lightEnd[u] = l;
+        }
+    }
+
+    // Bucket width heuristic: the largest weight divided by the average out-degree.
+    static int defaultDelta(Dijkstra.CSRGraph g) {
+        int max = 1;
+        for (int i = 0; i < g.edgeCount(); i++) max = Math.max(max, g.weights[i]);
+        double avgDegree = Math.max(1.0, (double) g.edgeCount() / Math.max(1, g.V));
+        return Math.max(1, (int) (max / avgDegree));
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public int[] shortestPaths(int source) {
+        int V = g.V;
+        int[] dist = new int[V];
+        Arrays.fill(dist, INF);
+        dist[source] = 0;
+
+        int maxWeight = 0;
+        for (int w : weights) maxWeight = Math.max(maxWeight, w);
+        int nb = maxWeight / delta + 2; // live buckets always span fewer than nb slots
+        IntList[] buckets = new IntList[nb];
+        for (int i = 0; i < nb; i++) buckets[i] = new IntList();
+        buckets[0].add(source);
+        long pending = 1;
+
+        int[] seenInPass = new int[V];   // frontier de-duplication, stamped per pass
+        int[] seenInBucket = new int[V]; // R de-duplication, stamped per bucket
+        int pass = 0;
+        IntList settled = new IntList(), frontier = new IntList();
+
+        for (int i = 0; pending > 0; i++) {
+            IntList bucket = buckets[i % nb];
+            if (bucket.size == 0) continue;
+            settled.size = 0;
+
+            while (bucket.size > 0) {
+                pass++;
+                frontier.size = 0;
+                for (int j = 0; j < bucket.size; j++) {
+                    int v = bucket.data[j];
+                    if (dist[v] / delta == i && seenInPass[v] != pass) { // drop stale entries
+                        seenInPass[v] = pass;
+                        frontier.add(v);
+                        if (seenInBucket[v] != i + 1) {
+                            seenInBucket[v] = i + 1;
+                            settled.add(v);
+                        }
+                    }
+                }
+                pending -= bucket.size;
+                bucket.size = 0;
+                pending += relax(frontier, dist, true, buckets);
+            }
+            pending += relax(settled, dist, false, buckets);
+        }
+        return dist;
+    }
+
+    // Relaxes the light or heavy edges of every vertex in `from` in parallel and
+    // files each improved vertex into its bucket. Returns the number filed.
+    private int relax(IntList from, int[] dist, boolean light, IntList[] buckets) {
+        int chunks = (from.size + GRAIN - 1) / GRAIN;
+        if (chunks == 0) return 0;
+        IntList[] improved = new IntList[chunks];
+        pool.invoke(new RelaxTask(from, dist, light, improved, 0, chunks));
+
+        int filed = 0;
+        for (IntList list : improved) {
+            for (int j = 0; j < list.size; j++) {
+                int v = list.data[j];
+                buckets[(dist[v] / delta) % buckets.length].add(v);
+            }
+            filed += list.size;
+        }
+        return filed;
+    }
+
+    private final class RelaxTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final IntList from;
+        final int[] dist;
+        final boolean light;
+        final IntList[] improved;
+        final int lo, hi; // chunk range
+
+        RelaxTask(IntList from, int[] dist, boolean light, IntList[] improved, int lo, int hi) {
+            this.from = from;
+            this.dist = dist;
+            this.light = light;
+            this.improved = improved;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RelaxTask(from, dist, light, improved, lo, mid),
+                          new RelaxTask(from, dist, light, improved, mid, hi));
+                return;
+            }
+            IntList out = new IntList();
+            for (int j = lo * GRAIN, end = Math.min(from.size, hi * GRAIN); j < end; j++) {
+                int u = from.data[j];
+                int du = (int) DIST.getVolatile(dist, u);
+                int eLo = light ? offsets[u] : lightEnd[u];
+                int eHi = light ? lightEnd[u] : offsets[u + 1];
+                for (int e = eLo; e < eHi; e++) {
+                    int v = targets[e];
+                    if (casMin(dist, v, du + weights[e])) out.add(v);
+                }
+            }
+            improved[lo] = out;
+        }
+    }
+
+    private static boolean casMin(int[] dist, int v, int nd) {
+        int cur;
+        while (nd < (cur = (int) DIST.getVolatile(dist, v))) {
+            if (DIST.compareAndSet(dist, v, cur, nd)) return true;
+        }
+        return false;
+    }
+
+    static final class IntList {
+        int[] data = new int[16];
+        int size;
+
+        void add(int x) {
+            if (size == data.length) data = Arrays.copyOf(data, 2 * size);
+            data[size++] = x;
+        }
+    }
+
+    // Scaling report from 1 to N threads, checked against Dijkstra:
+    //   java DeltaStepping [V] [E] [maxThreads] [delta]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 8_000_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Random rnd = new Random(5);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(600));
+        Dijkstra.CSRGraph g = builder.build();
+        int delta = args.length > 3 ? Integer.parseInt(args[3]) : defaultDelta(g);
+
+        long t0 = System.nanoTime();
+        int[] expected = Dijkstra.dijkstra(g, 0, Dijkstra.DEFAULT_ARITY);
+        double base = (System.nanoTime() - t0) / 1e6;
+        System.out.printf("Dijkstra (4-ary heap): %.1f ms; delta = %d%n", base, delta);
+        System.out.println("threads      ms   speedup vs 1 thread   matches Dijkstra");
+
+        double one = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(2 * threads, maxThreads) : threads + 1) {
+            DeltaStepping ds = new DeltaStepping(g, delta, threads);
+            ds.shortestPaths(0); // warm-up
+            long t1 = System.nanoTime();
+            int[] dist = ds.shortestPaths(0);
+            double ms = (System.nanoTime() - t1) / 1e6;
+            ds.shutdown();
+            if (threads == 1) one = ms;
+            System.out.printf("%7d %7.1f %21.2f %18b%n", threads, ms, one / ms, Arrays.equals(expected, dist));
+        }
+    }
+}
@@ -1,6 +1,14 @@
 import java.util.*;
 
 public class Dijkstra {
+    static final int DEFAULT_ARITY = 4;
+    static final int DIAL_MAX_WEIGHT = 1 << 12;   // AUTO picks Dial up to this edge weight
+    static final int RADIX_MAX_WEIGHT = 1 << 24;  // and the radix heap up to this one
+
+    // Priority queue used by dijkstra(..., Mode). DIAL and RADIX_HEAP need
+    // non-negative integer weights; AUTO chooses from the largest edge weight.
+    enum Mode { BINARY_HEAP, DIAL, RADIX_HEAP, AUTO }
+
     static class Edge {
         int to, weight;
         Edge(int to, int weight) {
@@ -9,6 +17,120 @@ public class Dijkstra {
         }
     }
 
+    // Compressed sparse row (CSR) graph. The out-edges of u live in
+    // targets[offsets[u] .. offsets[u + 1]) and weights[...] at the same indices,
+    // so an edge costs 8 bytes instead of a boxed Edge plus its list slot.
+    static final class CSRGraph {
+        final int V;
+        final int[] offsets; // length V + 1
+        final int[] targets;
+        final int[] weights;
+
+        CSRGraph(int V, int[] offsets, int[] targets, int[] weights) {
+            this.V = V;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        int edgeCount() {
+            return offsets[V];
+        }
+
+        int outDegree(int u) {
+            return offsets[u + 1] - offsets[u];
+        }
+
+        // Index of the first edge u -> v in targets/weights, or -1.
+        int edgeIndex(int u, int v) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (targets[e] == v) return e;
+            }
+            return -1;
+        }
+
+        // Same edges with every direction flipped: in-edges of v become out-edges.
+        CSRGraph reverse() {
+            int E = edgeCount();
+            int[] from = new int[E];
+            for (int u = 0; u < V; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) from[e] = u;
+            }
+            return fromEdges(V, targets, from, weights, E);
+        }
+
+        // Counting sort of E (from, to, weight) triples by source vertex: O(V + E).
+        static CSRGraph fromEdges(int V, int[] from, int[] to, int[] weight, int E) {
+            int[] offsets = new int[V + 1];
+            for (int i = 0; i < E; i++) offsets[from[i] + 1]++;
+            for (int u = 0; u < V; u++) offsets[u + 1] += offsets[u];
+
+            int[] next = Arrays.copyOf(offsets, V);
+            int[] targets = new int[E];
+            int[] weights = new int[E];
+            for (int i = 0; i < E; i++) {
+                int slot = next[from[i]]++;
+                targets[slot] = to[i];
+                weights[slot] = weight[i];
+            }
+            return new CSRGraph(V, offsets, targets, weights);
+        }
+
+        static CSRGraph fromAdjList(List<List<Edge>> adj, int V) {
+            int[] offsets = new int[V + 1];
+            for (int u = 0; u < V; u++) offsets[u + 1] = offsets[u] + adj.get(u).size();
+
+            int[] targets = new int[offsets[V]];
+            int[] weights = new int[offsets[V]];
+            for (int u = 0; u < V; u++) {
+                int slot = offsets[u];
+                for (Edge e : adj.get(u)) {
+                    targets[slot] = e.to;
+                    weights[slot++] = e.weight;
+                }
+            }
+            return new CSRGraph(V, offsets, targets, weights);
+        }
+
+        // Collects an edge stream into primitive arrays, then packs it with fromEdges.
+        static final class Builder {
+            private final int V;
+            private int[] from, to, weight;
+            private int size;
+
+            Builder(int V) {
+                this(V, 16);
+            }
+
+            Builder(int V, int expectedEdges) {
+                this.V = V;
+                int cap = Math.max(expectedEdges, 1);
+                from = new int[cap];
+                to = new int[cap];
+                weight = new int[cap];
+            }
+
+            Builder addEdge(int u, int v, int w) {
+                if (u < 0 || u >= V || v < 0 || v >= V)
+                    throw new IllegalArgumentException("Edge " + u + " -> " + v + " out of range [0, " + V + ")");
+                if (size == from.length) {
+                    int cap = size + (size >> 1) + 1;
+                    from = Arrays.copyOf(from, cap);
+                    to = Arrays.copyOf(to, cap);
+                    weight = Arrays.copyOf(weight, cap);
+                }
+                from[size] = u;
+                to[size] = v;
+                weight[size++] = w;
+                return this;
+            }
+
+            CSRGraph build() {
+                return fromEdges(V, from, to, weight, size);
+            }
+        }
+    }
+
     public static void dijkstra(List<List<Edge>> adj, int V, int source) {
         int[] dist = new int[V];
         Arrays.fill(dist, Integer.MAX_VALUE);
@@ -39,8 +161,143 @@ public class Dijkstra {
         }
     }
 
-    public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+    // Same algorithm walking the CSR arrays directly; returns dist instead of printing it.
+    public static int[] dijkstra(CSRGraph g, int source) {
+        int[] dist = new int[g.V];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+
+        int[] offsets = g.offsets, targets = g.targets, weights = g.weights;
+        PriorityQueue<int[]> pq = new PriorityQueue<>(Comparator.comparingInt(a -> a[0]));
+        pq.offer(new int[]{0, source});
+
+        while (!pq.isEmpty()) {
+            int[] curr = pq.poll();
+            int u = curr[1];
+            if (curr[0] > dist[u]) continue;
+
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                int nd = dist[u] + weights[e];
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    pq.offer(new int[]{nd, v});
+                }
+            }
+        }
+        return dist;
+    }
+
+    public static void dijkstra(List<List<Edge>> adj, int V, int source, Mode mode) {
+        int[] dist = dijkstra(CSRGraph.fromAdjList(adj, V), source, mode);
+        for (int i = 0; i < V; i++) {
+            System.out.println("Distance from source to " + i + " is " + dist[i]);
+        }
+    }
+
+    public static int[] dijkstra(CSRGraph g, int source, Mode mode) {
+        if (mode == Mode.BINARY_HEAP) return dijkstra(g, source, 2);
+
+        int maxWeight = BucketDijkstra.maxWeight(g);
+        if (mode == Mode.AUTO) {
+            if (maxWeight < 0) return dijkstra(g, source, DEFAULT_ARITY);
+            if (maxWeight <= DIAL_MAX_WEIGHT) mode = Mode.DIAL;
+            else if (maxWeight <= RADIX_MAX_WEIGHT) mode = Mode.RADIX_HEAP;
+            else return dijkstra(g, source, DEFAULT_ARITY);
+        } else if (maxWeight < 0) {
+            throw new IllegalArgumentException("Negative edge weight; " + mode + " needs weights >= 0");
+        }
+        return mode == Mode.DIAL ? BucketDijkstra.dial(g, source, maxWeight) : BucketDijkstra.radix(g, source);
+    }
+
+    // Indexed d-ary heap variant: one heap entry per vertex and decrease-key
+    // instead of a fresh int[] per relaxation.
+    public static int[] dijkstra(CSRGraph g, int source, int arity) {
+        int[] dist = new int[g.V];
+        dijkstra(g, source, dist, new IndexedDaryHeap(g.V, arity));
+        return dist;
+    }
+
+    // Fills dist using a caller-owned heap, so repeated searches allocate nothing.
+    static void dijkstra(CSRGraph g, int source, int[] dist, IndexedDaryHeap heap) {
+        dijkstra(g, source, dist, null, heap);
+    }
+
+    // Also records the shortest-path tree when parent is not null: parent[v] is
+    // v's predecessor, -1 for the source and unreachable vertices.
+    static void dijkstra(CSRGraph g, int source, int[] dist, int[] parent, IndexedDaryHeap heap) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        if (parent != null) Arrays.fill(parent, -1);
+        heap.clear();
+        dist[source] = 0;
+        heap.pushOrDecrease(source, 0);
+
+        int[] offsets = g.offsets, targets = g.targets, weights = g.weights;
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            int du = dist[u];
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                int nd = du + weights[e];
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    if (parent != null) parent[v] = u;
+                    heap.pushOrDecrease(v, nd);
+                }
+            }
+        }
+    }
+
+    // Runs on a memory-mapped graph file (see GraphFile) without copying it onto the heap.
+    public static int[] dijkstra(GraphFile.MappedGraph g, int source) {
+        int[] dist = new int[g.V];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+
+        java.nio.IntBuffer offsets = g.offsets, targets = g.targets, weights = g.weights;
+        PriorityQueue<int[]> pq = new PriorityQueue<>(Comparator.comparingInt(a -> a[0]));
+        pq.offer(new int[]{0, source});
+
+        while (!pq.isEmpty()) {
+            int[] curr = pq.poll();
+            int u = curr[1];
+            if (curr[0] > dist[u]) continue;
+
+            for (int e = offsets.get(u), end = offsets.get(u + 1); e < end; e++) {
+                int v = targets.get(e);
+                int nd = dist[u] + weights.get(e);
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    pq.offer(new int[]{nd, v});
+                }
+            }
+        }
+        return dist;
+    }
+
+    // java Dijkstra                            -> interactive input
+    // java Dijkstra graph.bin <source>         -> graph file written by GraphFile
+    // java Dijkstra edges.txt <source> [thr]   -> "V E / u v w" text file, parsed in parallel
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length >= 2) {
+            java.nio.file.Path path = java.nio.file.Paths.get(args[0]);
+            int source = Integer.parseInt(args[1]);
+            int[] dist;
+            if (GraphFile.isGraphFile(path)) {
+                dist = dijkstra(GraphFile.map(path), source);
+            } else {
+                int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+                EdgeListParser.ParsedEdges parsed = EdgeListParser.parse(path, threads);
+                System.err.printf("Parsed %d edges at %.1f MB/s%n", parsed.E, parsed.megabytesPerSecond());
+                dist = dijkstra(CSRGraph.fromEdges(parsed.V, parsed.from, parsed.to, parsed.weight, parsed.E), source, Mode.AUTO);
+            }
+            for (int i = 0; i < dist.length; i++) {
+                System.out.println("Distance from source to " + i + " is " + dist[i]);
+            }
+            return;
+        }
+
+        EdgeListParser.Reader sc = new EdgeListParser.Reader(System.in);
 
         System.out.print("Enter number of vertices: ");
         int V = sc.nextInt();
@@ -48,21 +305,24 @@ public class Dijkstra {
         System.out.print("Enter number of edges: ");
         int E = sc.nextInt();
 
-        List<List<Edge>> adj = new ArrayList<>();
-        for (int i = 0; i < V; i++) adj.add(new ArrayList<>());
+        CSRGraph.Builder builder = new CSRGraph.Builder(V, E);
 
         System.out.println("Enter edges in format: source destination weight");
         for (int i = 0; i < E; i++) {
             int u = sc.nextInt();
             int v = sc.nextInt();
             int w = sc.nextInt();
-            adj.get(u).add(new Edge(v, w));
-            // For undirected graph, also add: adj.get(v).add(new Edge(u, w));
+            builder.addEdge(u, v, w);
+            // For undirected graph, also add: builder.addEdge(v, u, w);
         }
+        CSRGraph g = builder.build();
 
         System.out.print("Enter source vertex: ");
         int source = sc.nextInt();
 
-        dijkstra(adj, V, source);
+        int[] dist = dijkstra(g, source, Mode.AUTO);
+        for (int i = 0; i < V; i++) {
+            System.out.println("Distance from source to " + i + " is " + dist[i]);
+        }
     }
 }
@@ -0,0 +1,259 @@
+import java.util.*;
+
+// Single-source shortest paths kept up to date under edge updates, in the style
+// of Ramalingam and Reps. Instead of rerunning Dijkstra, each update repairs only
+// the vertices whose distance actually changes:
+//
+//   decrease / insert u -> v: if it shortens v, run Dijkstra outward from v,
+//     touching only the vertices that improve.
+//   increase / delete u -> v: only matters if it is v's tree edge. Then the
+//     affected set is v's subtree in the shortest-path tree. Each affected vertex
+//     is re-seeded from its best unaffected in-neighbour, and Dijkstra runs
+//     inside the affected set.
+//
+// Both cost O(|changed| + edges touching them) times a log factor, not O(V + E).
+// There is at most one edge per (u, v) pair; weights must be non-negative.
+public class DynamicSSSP {
+    static final int INF = Integer.MAX_VALUE;
+
+    private final int V, source;
+    private final EdgeList[] out, in;
+    private final int[] dist, parent;
+    private final IndexedDaryHeap heap;
+    private final int[] affected, mark;
+    private int epoch, lastChanged;
+
+    private static final class EdgeList {
+        int[] to = new int[2], w = new int[2];
+        int size;
+
+        int find(int v) {
+            for (int i = 0; i < size; i++) if (to[i] == v) return i;
+            return -1;
+        }
+
+        void add(int v, int weight) {
+            if (size == to.length) {
+                to = Arrays.copyOf(to, 2 * size);
+                w = Arrays.copyOf(w, 2 * size);
+            }
+            to[size] = v;
+            w[size++] = weight;
+        }
+
+        void remove(int i) {
+            size--;
+            to[i] = to[size];
+            w[i] = w[size];
+        }
+    }
+
+    public DynamicSSSP(Dijkstra.CSRGraph g, int source) {
+        V = g.V;
+        this.source = source;
+        out = new EdgeList[V];
+        in = new EdgeList[V];
+        for (int v = 0; v < V; v++) {
+            out[v] = new EdgeList();
+            in[v] = new EdgeList();
+        }
+        for (int u = 0; u < V; u++) {
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e], w = g.weights[e];
+                if (w < 0) throw new IllegalArgumentException("Negative edge weight " + w);
+                int i = out[u].find(v);
+                if (i < 0) {
+                    out[u].add(v, w);
+                    in[v].add(u, w);
+                } else if (w < out[u].w[i]) { // keep the cheaper parallel edge
+                    out[u].w[i] = w;
+                    in[v].w[in[v].find(u)] = w;
+                }
+            }
+        }
+
+        dist = new int[V];
+        parent = new int[V];
+        heap = new IndexedDaryHeap(V, Dijkstra.DEFAULT_ARITY);
+        affected = new int[V];
+        mark = new int[V];
+        Dijkstra.dijkstra(g, source, dist, parent, heap);
+    }
+
+    // Live views; do not modify.
+    public int[] distances() {
+        return dist;
+    }
+
+    public int[] parents() {
+        return parent;
+    }
+
+    // Vertices whose distance changed in the last update.
+    public int lastChangedCount() {
+        return lastChanged;
+    }
+
+    // Inserts u -> v or changes its weight.
+    public void setEdgeWeight(int u, int v, int w) {
+        if (w < 0) throw new IllegalArgumentException("Negative edge weight " + w);
+        int i = out[u].find(v);
+        int old = i < 0 ? INF : out[u].w[i];
+        if (i < 0) {
+            out[u].add(v, w);
+            in[v].add(u, w);
+        } else {
+            out[u].w[i] = w;
+            in[v].w[in[v].find(u)] = w;
+        }
+        lastChanged = 0;
+        if (w < old) onDecrease(u, v, w);
+        else if (w > old) onIncrease(u, v);
+    }
+
+    public void deleteEdge(int u, int v) {
+        int i = out[u].find(v);
+        if (i < 0) throw new NoSuchElementException("No edge " + u + " -> " + v);
+        out[u].remove(i);
+        in[v].remove(in[v].find(u));
+        lastChanged = 0;
+        onIncrease(u, v);
+    }
+
+    private void onDecrease(int u, int v, int w) {
+        if (dist[u] == INF || dist[u] + w >= dist[v]) return;
+        dist[v] = dist[u] + w;
+        parent[v] = u;
+        heap.clear();
+        heap.pushOrDecrease(v, dist[v]);
+        epoch++; // mark[] stamps each lowered vertex once, however often it is relaxed
+        mark[v] = epoch;
+        lastChanged = 1;
+        while (!heap.isEmpty()) {
+            int x = heap.pollMin();
+            EdgeList ox = out[x];
+            for (int i = 0; i < ox.size; i++) {
+                int y = ox.to[i];
+                int nd = dist[x] + ox.w[i];
+                if (nd < dist[y]) {
+                    dist[y] = nd;
+                    parent[y] = x;
+                    heap.pushOrDecrease(y, nd);
+                    if (mark[y] != epoch) {
+                        mark[y] = epoch;
+                        lastChanged++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void onIncrease(int u, int v) {
+        if (parent[v] != u) return; // not a tree edge: no distance depends on it
+
+        // Affected set: the subtree of v in the shortest-path tree.
+        epoch++;
+        int n = 0;
+        affected[n++] = v;
+        mark[v] = epoch;
+        for (int head = 0; head < n; head++) {
+            int x = affected[head];
+            EdgeList ox = out[x];
+            for (int i = 0; i < ox.size; i++) {
+                int y = ox.to[i];
+                if (parent[y] == x && mark[y] != epoch) {
+                    mark[y] = epoch;
+                    affected[n++] = y;
+                }
+            }
+        }
+
+        // Re-seed each affected vertex from its best unaffected in-neighbour.
+        int[] oldDist = new int[n];
+        heap.clear();
+        for (int k = 0; k < n; k++) {
+            int x = affected[k];
+            oldDist[k] = dist[x];
+            dist[x] = INF;
+            parent[x] = -1;
+        }
+        for (int k = 0; k < n; k++) {
+            int x = affected[k];
+            EdgeList ix = in[x];
+            for (int i = 0; i < ix.size; i++) {
+                int p = ix.to[i];
+                if (mark[p] == epoch || dist[p] == INF) continue;
+                int nd = dist[p] + ix.w[i];
+                if (nd < dist[x]) {
+                    dist[x] = nd;
+                    parent[x] = p;
+                }
+            }
+            if (dist[x] != INF) heap.pushOrDecrease(x, dist[x]);
+        }
+
+        // Dijkstra inside the affected set; unaffected distances cannot drop.
+        while (!heap.isEmpty()) {
+            int x = heap.pollMin();
+            EdgeList ox = out[x];
+            for (int i = 0; i < ox.size; i++) {
+                int y = ox.to[i];
+                if (mark[y] != epoch) continue;
+                int nd = dist[x] + ox.w[i];
+                if (nd < dist[y]) {
+                    dist[y] = nd;
+                    parent[y] = x;
+                    heap.pushOrDecrease(y, nd);
+                }
+            }
+        }
+        for (int k = 0; k < n; k++) if (dist[affected[k]] != oldDist[k]) lastChanged++;
+    }
+
+    // Current graph as CSR, e.g. to check against a fresh Dijkstra run.
+    Dijkstra.CSRGraph toCSR() {
+        Dijkstra.CSRGraph.Builder b = new Dijkstra.CSRGraph.Builder(V);
+        for (int u = 0; u < V; u++) {
+            for (int i = 0; i < out[u].size; i++) b.addEdge(u, out[u].to[i], out[u].w[i]);
+        }
+        return b.build();
+    }
+
+    // Applies random weight changes, inserts and deletes; checks every 100th
+    // against a from-scratch Dijkstra:
+    //   java DynamicSSSP [V] [E] [updates]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int updates = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        Random rnd = new Random(21);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(600));
+        Dijkstra.CSRGraph g = builder.build();
+        DynamicSSSP sssp = new DynamicSSSP(g, 0);
+
+        long nanos = 0, changed = 0;
+        int mismatches = 0;
+        for (int k = 0; k < updates; k++) {
+            int u = rnd.nextInt(V);
+            long t0 = System.nanoTime();
+            int op = rnd.nextInt(4);
+            if (op == 0 && sssp.out[u].size > 0) {
+                sssp.deleteEdge(u, sssp.out[u].to[rnd.nextInt(sssp.out[u].size)]);
+            } else if (op == 1 || sssp.out[u].size == 0) {
+                sssp.setEdgeWeight(u, rnd.nextInt(V), 1 + rnd.nextInt(600));
+            } else {
+                int i = rnd.nextInt(sssp.out[u].size);
+                sssp.setEdgeWeight(u, sssp.out[u].to[i], 1 + rnd.nextInt(600));
+            }
+            nanos += System.nanoTime() - t0;
+            changed += sssp.lastChangedCount();
+            if (k % 100 == 99 && !Arrays.equals(sssp.distances(), Dijkstra.dijkstra(sssp.toCSR(), 0, Dijkstra.DEFAULT_ARITY))) {
+                mismatches++;
+            }
+        }
+        System.out.printf("%d updates: %.1f us/update, %.1f distances changed per update, mismatches: %d%n",
+                updates, nanos / 1e3 / updates, (double) changed / updates, mismatches);
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.*;
+
+// Indexed d-ary min-heap over vertex ids 0..n-1 with int keys.
+// pos[v] is v's slot in heap[] (-1 when absent), so decreaseKey is O(log_d n)
+// and the heap never holds more than one entry per vertex: O(V) memory and no
+// allocation per relaxation, unlike PriorityQueue<int[]> with lazy deletion.
+// A wider heap (d = 4 or 8) is shallower and scans children that share a cache line.
+public class IndexedDaryHeap {
+    private final int d;
+    private final int[] heap; // heap[i] = vertex in slot i
+    private final int[] pos;  // pos[v] = slot of v, or -1
+    private final int[] key;  // key[v], valid while v is in the heap
+    private int size;
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) throw new IllegalArgumentException("arity must be at least 2, got " + arity);
+        d = arity;
+        heap = new int[capacity];
+        pos = new int[capacity];
+        key = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int v) {
+        return pos[v] >= 0;
+    }
+
+    public int key(int v) {
+        return key[v];
+    }
+
+    public int minKey() {
+        return key[heap[0]];
+    }
+
+    // Inserts v, or lowers its key if it is already queued. Larger keys are ignored.
+    public void pushOrDecrease(int v, int k) {
+        if (pos[v] < 0) {
+            key[v] = k;
+            heap[size] = v;
+            pos[v] = size;
+            siftUp(size++);
+        } else if (k < key[v]) {
+            key[v] = k;
+            siftUp(pos[v]);
+        }
+    }
+
+    public int pollMin() {
+        int min = heap[0];
+        pos[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // Empties the heap in O(size) so its buffers can be reused for another search.
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i], k = key[v];
+        while (i > 0) {
+            int p = (i - 1) / d;
+            int pv = heap[p];
+            if (key[pv] <= k) break;
+            heap[i] = pv;
+            pos[pv] = i;
+            i = p;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i], k = key[v];
+        while (true) {
+            int first = d * i + 1;
+            if (first >= size) break;
+            int last = Math.min(first + d, size);
+            int best = first;
+            int bestKey = key[heap[first]];
+            for (int c = first + 1; c < last; c++) {
+                int ck = key[heap[c]];
+                if (ck < bestKey) {
+                    best = c;
+                    bestKey = ck;
+                }
+            }
+            if (bestKey >= k) break;
+            int bv = heap[best];
+            heap[i] = bv;
+            pos[bv] = i;
+            i = best;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    // Side-by-side timing of Dijkstra on PriorityQueue<int[]> vs. this heap:
+    //   java IndexedDaryHeap [V] [E] [arity]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 8_000_000;
+        int arity = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        Random rnd = new Random(42);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(600));
+        Dijkstra.CSRGraph g = builder.build();
+
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            int[] a = Dijkstra.dijkstra(g, 0);
+            long t1 = System.nanoTime();
+            int[] b = Dijkstra.dijkstra(g, 0, arity);
+            long t2 = System.nanoTime();
+            System.out.printf("PriorityQueue<int[]>: %7.1f ms   %d-ary indexed heap: %7.1f ms   same result: %b%n",
+                    (t1 - t0) / 1e6, arity, (t2 - t1) / 1e6, Arrays.equals(a, b));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.*;
+
+// Bounded cache of per-source shortest-path trees (dist + parent arrays).
+//
+// Entries are keyed by (graph version, source) and kept in LRU order under a
+// byte budget. Weight updates go through this class: each one takes the write
+// lock, changes the weight, bumps the version and drops every cached tree,
+// because any of them may now be wrong. Queries hold the read lock while they
+// compute, so a search never sees a half-applied update.
+//
+// The cache works on its own copy of the weights and shares only the edge
+// structure with the caller's graph. Updates therefore never reach the
+// caller's CSRGraph or anything built from it (ALTIndex, ContractionHierarchy,
+// BatchDijkstra, DynamicSSSP, reverse()), which keep answering for the
+// original weights. Only weight changes are supported: inserting or deleting
+// an edge would change the CSR layout, so for that use DynamicSSSP or rebuild
+// the graph and start a new cache.
+//
+// Returned arrays are shared with the cache and must not be modified.
+public class ShortestPathCache {
+    static final class Tree {
+        final int source;
+        final long version;
+        final int[] dist, parent;
+
+        Tree(int source, long version, int[] dist, int[] parent) {
+            this.source = source;
+            this.version = version;
+            this.dist = dist;
+            this.parent = parent;
+        }
+
+        long bytes() {
+            return 2 * (16L + 4L * dist.length) + 32; // two int[] plus this object
+        }
+    }
+
+    private final Dijkstra.CSRGraph g;
+    private final long budgetBytes;
+    private final ReadWriteLock graphLock = new ReentrantReadWriteLock();
+    private final ThreadLocal<IndexedDaryHeap> heaps;
+    private final LinkedHashMap<Long, Tree> entries = new LinkedHashMap<>(16, 0.75f, true); // access order
+    private long usedBytes;
+    private volatile long version;
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong(), invalidations = new AtomicLong();
+
+    public ShortestPathCache(Dijkstra.CSRGraph g, long budgetBytes) {
+        this.g = new Dijkstra.CSRGraph(g.V, g.offsets, g.targets, g.weights.clone());
+        this.budgetBytes = budgetBytes;
+        this.heaps = ThreadLocal.withInitial(() -> new IndexedDaryHeap(g.V, Dijkstra.DEFAULT_ARITY));
+    }
+
+    public Tree get(int source) {
+        graphLock.readLock().lock();
+        try {
+            long v = version;
+            Long key = key(v, source);
+            synchronized (entries) {
+                Tree t = entries.get(key);
+                if (t != null) {
+                    hits.incrementAndGet();
+                    return t;
+                }
+            }
+            misses.incrementAndGet();
+
+            int[] dist = new int[g.V], parent = new int[g.V];
+            Dijkstra.dijkstra(g, source, dist, parent, heaps.get());
+            Tree t = new Tree(source, v, dist, parent);
+            synchronized (entries) {
+                if (t.bytes() <= budgetBytes && entries.putIfAbsent(key, t) == null) {
+                    usedBytes += t.bytes();
+                    evictToBudget();
+                }
+            }
+            return t;
+        } finally {
+            graphLock.readLock().unlock();
+        }
+    }
+
+    public int[] distances(int source) {
+        return get(source).dist;
+    }
+
+    public int[] parents(int source) {
+        return get(source).parent;
+    }
+
+    // Sets the weight of edge u -> v. With parallel edges only the first one
+    // (lowest index in the CSR arrays) changes; use updateEdgeWeightAt for the others.
+    public void updateEdgeWeight(int u, int v, int w) {
+        int e = g.edgeIndex(u, v);
+        if (e < 0) throw new NoSuchElementException("No edge " + u + " -> " + v);
+        updateEdgeWeightAt(e, w);
+    }
+
+    // Sets the weight of the edge at index e of the graph's targets/weights arrays.
+    public void updateEdgeWeightAt(int e, int w) {
+        if (e < 0 || e >= g.edgeCount()) throw new IndexOutOfBoundsException("No edge at index " + e);
+        graphLock.writeLock().lock();
+        try {
+            if (g.weights[e] == w) return;
+            g.weights[e] = w;
+            version++;
+            synchronized (entries) {
+                invalidations.addAndGet(entries.size());
+                entries.clear();
+                usedBytes = 0;
+            }
+        } finally {
+            graphLock.writeLock().unlock();
+        }
+    }
+
+    // Current weight of the edge at index e, as seen by the cache.
+    public int edgeWeightAt(int e) {
+        graphLock.readLock().lock();
+        try {
+            return g.weights[e];
+        } finally {
+            graphLock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public long invalidations() {
+        return invalidations.get();
+    }
+
+    public long usedBytes() {
+        synchronized (entries) {
+            return usedBytes;
+        }
+    }
+
+    private void evictToBudget() {
+        Iterator<Tree> it = entries.values().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            usedBytes -= it.next().bytes();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static Long key(long version, int source) {
+        return (version << 32) | (source & 0xFFFFFFFFL);
+    }
+
+    // Replays a skewed query stream with occasional weight updates:
+    //   java ShortestPathCache [V] [E] [queries] [budgetMB]
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        long budget = (args.length > 3 ? Long.parseLong(args[3]) : 32) << 20;
+
+        Random rnd = new Random(9);
+        Dijkstra.CSRGraph.Builder builder = new Dijkstra.CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(600));
+        Dijkstra.CSRGraph g = builder.build();
+        ShortestPathCache cache = new ShortestPathCache(g, budget);
+        int[] original = g.weights.clone();
+
+        int[] hot = new int[64];
+        for (int i = 0; i < hot.length; i++) hot[i] = rnd.nextInt(V);
+        long t0 = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            int source = rnd.nextInt(10) < 9 ? hot[rnd.nextInt(hot.length)] : rnd.nextInt(V);
+            cache.get(source);
+            if (q % 500 == 250) {
+                int u = rnd.nextInt(V);
+                if (g.outDegree(u) > 0) cache.updateEdgeWeight(u, g.targets[g.offsets[u]], 1 + rnd.nextInt(600));
+            }
+        }
+        System.out.printf("%d queries in %.1f ms: hits %d, misses %d, evictions %d, invalidated %d, %d KB cached%n",
+                queries, (System.nanoTime() - t0) / 1e6, cache.hits(), cache.misses(),
+                cache.evictions(), cache.invalidations(), cache.usedBytes() >> 10);
+
+        // The updated weights live in the cache only; a cached tree matches a fresh
+        // search over them, and the caller's graph still has its original weights.
+        int source = hot[0];
+        int[] weights = new int[g.edgeCount()];
+        for (int e = 0; e < weights.length; e++) weights[e] = cache.edgeWeightAt(e);
+        int[] fresh = Dijkstra.dijkstra(new Dijkstra.CSRGraph(V, g.offsets, g.targets, weights), source, Dijkstra.DEFAULT_ARITY);
+        System.out.printf("cached tree matches a fresh search: %b; caller's graph untouched: %b%n",
+                Arrays.equals(fresh, cache.distances(source)), Arrays.equals(original, g.weights));
+    }
+}
@@ -1,8 +1,12 @@
+import java.io.*;
 import java.util.*;
 
 public class A {
-    public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+    // java A                     -> "C R K L" then R roads "u v" on stdin
+    // java A input.txt [threads]  -> the same input from a file, parsed in parallel
+    // Compile with the shared parser: javac -sourcepath "../Greedy Algorithm" -d out A.java
+    public static void main(String[] args) throws IOException {
+        EdgeListParser.IntSource sc = EdgeListParser.open(args, 0);
 
         int C = sc.nextInt(); // number of cities
         int R = sc.nextInt(); // number of roads